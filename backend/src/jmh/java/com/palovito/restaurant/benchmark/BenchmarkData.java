@@ -0,0 +1,96 @@
+package com.palovito.restaurant.benchmark;
+
+import com.palovito.restaurant.entity.OrderEntity;
+import com.palovito.restaurant.mapper.CategoryMapper;
+import com.palovito.restaurant.mapper.MenuMapper;
+import com.palovito.restaurant.mapper.OrderMapper;
+import com.palovito.restaurant.model.Category;
+import com.palovito.restaurant.model.Menu;
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderItem;
+import com.palovito.restaurant.model.OrderStatus;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic fixtures shared by the benchmarks, shaped like a typical
+ * order: a handful of lines built from fully populated menu items.
+ */
+final class BenchmarkData {
+    static final Category CATEGORY = new Category("category-1", "Mains", "Main dishes");
+
+    private BenchmarkData() {
+    }
+
+    static MenuMapper menuMapper() {
+        return new MenuMapper(new CategoryMapper());
+    }
+
+    static OrderMapper orderMapper() {
+        return new OrderMapper();
+    }
+
+    static Menu menu(int index) {
+        Map<String, Integer> nutrition = new LinkedHashMap<>();
+        nutrition.put("calories", 450 + index);
+        nutrition.put("protein", 20);
+        nutrition.put("carbs", 55);
+        nutrition.put("fat", 12);
+        return new Menu(
+            "menu-" + index,
+            "Dish " + index,
+            "A reasonably long description of dish number " + index + " and how it is prepared",
+            9.5 + index,
+            CATEGORY,
+            "https://images.example.com/menu-" + index + ".jpg",
+            index % 3 == 0,
+            true,
+            15,
+            index % 4,
+            List.of("gluten", "dairy", "nuts"),
+            nutrition
+        );
+    }
+
+    static List<Menu> menus(int count) {
+        List<Menu> menus = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            menus.add(menu(i));
+        }
+        return menus;
+    }
+
+    static Order order(int lines) {
+        List<OrderItem> items = new ArrayList<>(lines);
+        double total = 0.0;
+        for (int i = 0; i < lines; i++) {
+            Menu menu = menu(i);
+            items.add(OrderItem.of("item-" + i, menu, i + 1));
+            total += menu.getPrice().doubleValue() * (i + 1);
+        }
+        return Order.builder()
+            .id("order-1")
+            .items(items)
+            .status(OrderStatus.RECEIVED)
+            .timestamp(OffsetDateTime.parse("2024-03-01T12:30:00+01:00").toString())
+            .total(total)
+            .build();
+    }
+
+    /**
+     * The entity form of {@link #order(int)} as it would come back from JPA,
+     * with generated item ids.
+     */
+    static OrderEntity orderEntity(int lines) {
+        OrderEntity entity = orderMapper().toEntity(order(lines));
+        long id = 1;
+        for (var item : entity.getItems()) {
+            item.setId(id++);
+        }
+        return entity;
+    }
+}
@@ -0,0 +1,145 @@
+package com.palovito.restaurant.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.palovito.restaurant.model.Menu;
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderRequest;
+import com.palovito.restaurant.repository.OrderRepository;
+import com.palovito.restaurant.service.MenuCatalog;
+import com.palovito.restaurant.service.MenuService;
+import com.palovito.restaurant.service.OrderEventBroadcaster;
+import com.palovito.restaurant.service.OrderEventPublisher;
+import com.palovito.restaurant.service.OrderNearCache;
+import com.palovito.restaurant.service.OrderRedisService;
+import com.palovito.restaurant.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderService#createOrder} with the database, Redis and the broker
+ * replaced by in-memory fakes. What is left is the service's own work: request
+ * validation, menu lookups, pricing, entity mapping and event serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CreateOrderBenchmark {
+    @Param({"1", "5", "20"})
+    private int lines;
+
+    private OrderService orderService;
+    private OrderEventPublisher eventPublisher;
+    private OrderRequest request;
+
+    // The fakes publish what they receive here so the work is never dead code.
+    private volatile Object lastSent;
+
+    @Setup
+    public void setUp() {
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> {
+            lastSent = message;
+            return true;
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OrderEventBroadcaster broadcaster = new OrderEventBroadcaster(messagingTemplate, new ObjectMapper(), meterRegistry);
+        eventPublisher = new OrderEventPublisher(broadcaster, meterRegistry, Duration.ofMillis(50), Integer.MAX_VALUE);
+
+        orderService = new OrderService(
+            eventPublisher,
+            new InMemoryMenuService(BenchmarkData.menus(lines)),
+            new InMemoryOrderRedisService(),
+            // createOrder only fills the near cache, which never touches Redis
+            new OrderNearCache(null, null, meterRegistry, 10_000, Duration.ofSeconds(30), "orders:invalidate"),
+            inMemoryOrderRepository(),
+            BenchmarkData.orderMapper(),
+            new TransactionTemplate(),
+            new NoOpCacheManager()
+        );
+
+        List<OrderRequest.OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            OrderRequest.OrderItem item = new OrderRequest.OrderItem();
+            item.setMenuId("menu-" + i);
+            item.setQuantity(i + 1);
+            items.add(item);
+        }
+        request = new OrderRequest();
+        request.setItems(items);
+    }
+
+    /**
+     * Flushes the event queue after every order so that the pending map stays
+     * small and the cost of publishing is still part of what is measured.
+     */
+    @Benchmark
+    public Order createOrder() {
+        Order order = orderService.createOrder(request);
+        eventPublisher.flush();
+        return order;
+    }
+
+    /**
+     * Only {@code save} is exercised by createOrder; it hands the entity back
+     * like JPA does and everything else is unsupported.
+     */
+    private OrderRepository inMemoryOrderRepository() {
+        return (OrderRepository) Proxy.newProxyInstance(
+            OrderRepository.class.getClassLoader(),
+            new Class<?>[] {OrderRepository.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("save")) {
+                    lastSent = args[0];
+                    return args[0];
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private static final class InMemoryMenuService extends MenuService {
+        private final MenuCatalog catalog;
+
+        InMemoryMenuService(List<Menu> menus) {
+            super(null, null, null, null, null, null);
+            this.catalog = MenuCatalog.of(1, menus);
+        }
+
+        @Override
+        public MenuCatalog getCatalog() {
+            return catalog;
+        }
+
+        @Override
+        public Map<String, Menu> getMenusByIds(Collection<String> ids) {
+            return catalog.getMenus(ids);
+        }
+    }
+
+    private final class InMemoryOrderRedisService extends OrderRedisService {
+        InMemoryOrderRedisService() {
+            super(null, null);
+        }
+
+        @Override
+        public void cacheOrder(Order order) {
+            lastSent = order;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.palovito.restaurant.benchmark;
+
+import com.palovito.restaurant.entity.MenuEntity;
+import com.palovito.restaurant.mapper.MenuMapper;
+import com.palovito.restaurant.model.Menu;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Covers the conversion between menu rows and models, which copies the
+ * allergen list and nutritional info of every menu read from or written to
+ * the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MenuMapperBenchmark {
+    private MenuMapper mapper;
+    private Menu menu;
+    private MenuEntity entity;
+
+    @Setup
+    public void setUp() {
+        mapper = BenchmarkData.menuMapper();
+        menu = BenchmarkData.menu(1);
+        entity = mapper.toEntity(menu);
+    }
+
+    @Benchmark
+    public MenuEntity toEntity() {
+        return mapper.toEntity(menu);
+    }
+
+    @Benchmark
+    public Menu toModel() {
+        return mapper.toModel(entity);
+    }
+}
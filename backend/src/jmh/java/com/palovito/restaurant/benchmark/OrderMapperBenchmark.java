@@ -0,0 +1,44 @@
+package com.palovito.restaurant.benchmark;
+
+import com.palovito.restaurant.entity.OrderEntity;
+import com.palovito.restaurant.mapper.OrderMapper;
+import com.palovito.restaurant.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderMapperBenchmark {
+    @Param({"1", "5", "20"})
+    private int lines;
+
+    private OrderMapper mapper;
+    private Order order;
+    private OrderEntity entity;
+
+    @Setup
+    public void setUp() {
+        mapper = BenchmarkData.orderMapper();
+        order = BenchmarkData.order(lines);
+        entity = BenchmarkData.orderEntity(lines);
+    }
+
+    @Benchmark
+    public OrderEntity toEntity() {
+        return mapper.toEntity(order);
+    }
+
+    @Benchmark
+    public Order toModel() {
+        return mapper.toModel(entity);
+    }
+}
@@ -0,0 +1,51 @@
+package com.palovito.restaurant.benchmark;
+
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.service.OrderRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of an order through {@link OrderRedisSerializer} in each format,
+ * as it is written to and read from Redis. BINARY uses the application's
+ * default compression threshold, so the larger orders are deflated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderRedisSerializerBenchmark {
+    @Param({"1", "5", "20"})
+    private int lines;
+
+    @Param({"BINARY", "JSON"})
+    private OrderRedisSerializer.Format format;
+
+    private OrderRedisSerializer serializer;
+    private Order order;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        serializer = new OrderRedisSerializer(format, 1024);
+        order = BenchmarkData.order(lines);
+        serialized = serializer.serialize(order);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(order);
+    }
+
+    @Benchmark
+    public Order deserialize() {
+        return serializer.deserialize(serialized);
+    }
+}
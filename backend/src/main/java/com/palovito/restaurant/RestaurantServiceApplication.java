@@ -4,12 +4,10 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 
 @SpringBootApplication(scanBasePackages = "com.palovito.restaurant")
 @EnableScheduling
 @EnableWebSecurity
-@EnableRedisRepositories
 public class RestaurantServiceApplication {
 
 	public static void main(String[] args) {
@@ -1,16 +1,90 @@
 package com.palovito.restaurant.config;
 
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The application's caches. Each one keeps a bounded copy on every node in
+ * front of a shared copy in Redis; see {@link TwoLevelCacheManager}.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfig {
+    // Ids of the menus matching a filter, evicted on every menu change
+    public static final String MENUS = "menus";
+    public static final String CATEGORIES = "categories";
+    // Closed orders read from the database after they left the order cache
+    public static final String COMPLETED_ORDERS = "completedOrders";
+
+    @Value("${cache.menus.ttl}")
+    private Duration menusTtl;
+
+    @Value("${cache.menus.max-entries}")
+    private long menusMaxEntries;
+
+    @Value("${cache.categories.ttl}")
+    private Duration categoriesTtl;
+
+    @Value("${cache.categories.max-entries}")
+    private long categoriesMaxEntries;
+
+    @Value("${cache.completed-orders.ttl}")
+    private Duration completedOrdersTtl;
+
+    @Value("${cache.completed-orders.max-entries}")
+    private long completedOrdersMaxEntries;
+
+    @Value("${cache.invalidation-channel}")
+    private String invalidationChannel;
+
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("completedOrders");
+    public TwoLevelCacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry) {
+        Map<String, TwoLevelCacheManager.CacheSpec> specs = new LinkedHashMap<>();
+        specs.put(MENUS, new TwoLevelCacheManager.CacheSpec(menusTtl, menusMaxEntries));
+        specs.put(CATEGORIES, new TwoLevelCacheManager.CacheSpec(categoriesTtl, categoriesMaxEntries));
+        specs.put(COMPLETED_ORDERS, new TwoLevelCacheManager.CacheSpec(completedOrdersTtl, completedOrdersMaxEntries));
+
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+            .disableCachingNullValues()
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                new GenericJackson2JsonRedisSerializer()));
+        Map<String, RedisCacheConfiguration> configurations = new LinkedHashMap<>();
+        specs.forEach((name, spec) -> configurations.put(name, defaults.entryTtl(spec.ttl())));
+
+        // Clearing a cache walks its keys with SCAN rather than KEYS
+        RedisCacheManager remote = RedisCacheManager
+            .builder(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)))
+            .cacheDefaults(defaults)
+            .withInitialCacheConfigurations(configurations)
+            .disableCreateOnMissingCache()
+            .enableStatistics()
+            .build();
+        remote.afterPropertiesSet();
+
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+            remote, specs, redisTemplate, meterRegistry, invalidationChannel);
+        listenerContainer.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+        return cacheManager;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.palovito.restaurant.config;
+
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Resolves the client address and scheme from {@code X-Forwarded-For} and
+ * {@code X-Forwarded-Proto} for requests that come through a trusted proxy,
+ * so that the rate limiter and the logs see the actual client rather than
+ * the proxy or load balancer. The headers of any other peer are ignored, so
+ * clients cannot pick their own address.
+ */
+@Configuration
+public class ForwardedHeaderConfig {
+    @Value("${forwarded-headers.enabled}")
+    private boolean enabled;
+
+    @Value("${forwarded-headers.trusted-proxies}")
+    private String trustedProxies;
+
+    @Bean
+    public FilterRegistrationBean<RemoteIpFilter> remoteIpFilter() {
+        FilterRegistrationBean<RemoteIpFilter> registration = new FilterRegistrationBean<>(remoteIpFilter(trustedProxies));
+        // Ahead of every other filter, the rate limiter included
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    /**
+     * @param trustedProxies regular expression matching the addresses of
+     *                       trusted proxies; blank keeps Tomcat's default of
+     *                       the private and loopback ranges
+     */
+    static RemoteIpFilter remoteIpFilter(String trustedProxies) {
+        RemoteIpFilter filter = new RemoteIpFilter();
+        filter.setRemoteIpHeader("X-Forwarded-For");
+        filter.setProtocolHeader("X-Forwarded-Proto");
+        if (trustedProxies != null && !trustedProxies.isBlank()) {
+            filter.setInternalProxies(trustedProxies);
+        }
+        return filter;
+    }
+}
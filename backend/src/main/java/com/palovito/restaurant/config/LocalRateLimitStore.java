@@ -0,0 +1,54 @@
+package com.palovito.restaurant.config;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Buckets held in this node's memory. Each bucket is a single
+ * {@link AtomicLong} holding the time at which it will be full again,
+ * updated by compare-and-set (the generic cell rate algorithm), so taking a
+ * token never blocks. The buckets live in a Guava cache split into
+ * {@code stripes} segments. Buckets unused for {@code idleTimeout} are
+ * dropped, which is harmless since they would be full by then.
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+    private final LoadingCache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    public LocalRateLimitStore(int stripes, long maxBuckets, Duration idleTimeout) {
+        this(stripes, maxBuckets, idleTimeout, System::nanoTime);
+    }
+
+    LocalRateLimitStore(int stripes, long maxBuckets, Duration idleTimeout, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.buckets = CacheBuilder.newBuilder()
+            .concurrencyLevel(stripes)
+            .maximumSize(maxBuckets)
+            .expireAfterAccess(idleTimeout)
+            .build(CacheLoader.from(() -> new AtomicLong(Long.MIN_VALUE)));
+    }
+
+    @Override
+    public Duration tryAcquire(String key, RateLimitPolicy policy) {
+        AtomicLong bucket = buckets.getUnchecked(key);
+        long interval = policy.intervalNanos();
+        long capacity = interval * policy.burst();
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = bucket.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - capacity;
+            if (wait > 0) {
+                return Duration.ofNanos(wait);
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+}
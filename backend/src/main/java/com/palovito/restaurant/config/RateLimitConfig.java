@@ -1,13 +1,83 @@
 package com.palovito.restaurant.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import com.google.common.util.concurrent.RateLimiter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
 
 @Configuration
 public class RateLimitConfig {
+    public enum Mode {
+        // Each node limits the requests it receives
+        LOCAL,
+        // The limits apply across all nodes, at the cost of a Redis call per request
+        REDIS
+    }
+
+    @Value("${rate-limit.enabled}")
+    private boolean enabled;
+
+    @Value("${rate-limit.mode}")
+    private Mode mode;
+
+    @Value("${rate-limit.api-key-header}")
+    private String apiKeyHeader;
+
+    @Value("${rate-limit.order-writes.permits-per-second}")
+    private double orderWritesRate;
+
+    @Value("${rate-limit.order-writes.burst}")
+    private int orderWritesBurst;
+
+    @Value("${rate-limit.menu-reads.permits-per-second}")
+    private double menuReadsRate;
+
+    @Value("${rate-limit.menu-reads.burst}")
+    private int menuReadsBurst;
+
+    @Value("${rate-limit.default.permits-per-second}")
+    private double defaultRate;
+
+    @Value("${rate-limit.default.burst}")
+    private int defaultBurst;
+
+    @Value("${rate-limit.local.stripes}")
+    private int stripes;
+
+    @Value("${rate-limit.local.max-buckets}")
+    private long maxBuckets;
+
+    @Value("${rate-limit.local.idle-timeout}")
+    private Duration idleTimeout;
+
     @Bean
-    public RateLimiter rateLimiter() {
-        return RateLimiter.create(100.0); // 100 requests per second
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        RateLimitStore store = mode == Mode.REDIS
+            ? new RedisRateLimitStore(redisTemplate)
+            : new LocalRateLimitStore(stripes, maxBuckets, idleTimeout);
+        RateLimitFilter filter = new RateLimitFilter(
+            store,
+            new RateLimitPolicy("order-writes", orderWritesRate, orderWritesBurst),
+            new RateLimitPolicy("menu-reads", menuReadsRate, menuReadsBurst),
+            new RateLimitPolicy("default", defaultRate, defaultBurst),
+            apiKeyHeader,
+            objectMapper,
+            meterRegistry);
+
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        // Right after Spring Security, so that 429 responses carry CORS headers
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registration.setEnabled(enabled);
+        return registration;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package com.palovito.restaurant.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.palovito.restaurant.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Limits how fast each client may call the API, with separate buckets for
+ * order writes, menu reads and everything else under {@code /api}. A client
+ * is identified by the API key header if it sends one, otherwise by its
+ * address, which {@link ForwardedHeaderConfig} resolves to the client's own
+ * behind a trusted proxy. Requests over the limit get 429 with
+ * {@code Retry-After}.
+ *
+ * <p>API keys are not verified here; a client that invents a new key per
+ * request escapes its own limit but not {@code max-buckets}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimitStore store;
+    private final RateLimitPolicy orderWrites;
+    private final RateLimitPolicy menuReads;
+    private final RateLimitPolicy defaults;
+    private final String apiKeyHeader;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Counter> rejected;
+
+    public RateLimitFilter(
+            RateLimitStore store,
+            RateLimitPolicy orderWrites,
+            RateLimitPolicy menuReads,
+            RateLimitPolicy defaults,
+            String apiKeyHeader,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.store = store;
+        this.orderWrites = orderWrites;
+        this.menuReads = menuReads;
+        this.defaults = defaults;
+        this.apiKeyHeader = apiKeyHeader;
+        this.objectMapper = objectMapper;
+        this.rejected = Map.of(
+            orderWrites.name(), rejectedCounter(meterRegistry, orderWrites),
+            menuReads.name(), rejectedCounter(meterRegistry, menuReads),
+            defaults.name(), rejectedCounter(meterRegistry, defaults));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, RateLimitPolicy policy) {
+        return Counter.builder("http.rate-limit.rejected")
+            .description("Requests rejected with 429 because the client was over its limit")
+            .tag("policy", policy.name())
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights are answered before they reach a controller
+        return HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimitPolicy policy = policyFor(request);
+        Duration wait = store.tryAcquire(policy.name() + ":" + clientKey(request), policy);
+        if (wait.isZero()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        rejected.get(policy.name()).increment();
+        reject(request, response, wait);
+    }
+
+    private RateLimitPolicy policyFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        if (!read && isUnder(path, "/api/order")) {
+            return orderWrites;
+        }
+        if (read && isUnder(path, "/api/menu")) {
+            return menuReads;
+        }
+        return defaults;
+    }
+
+    private static boolean isUnder(String path, String prefix) {
+        return path.equals(prefix) || path.startsWith(prefix + "/");
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (apiKey != null && !apiKey.isBlank()) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Duration wait) throws IOException {
+        // Retry-After is in whole seconds; round up so a retry is not rejected again
+        long retryAfterSeconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+        ErrorResponse error = new ErrorResponse(
+            "Too Many Requests",
+            "Rate limit exceeded, retry in " + retryAfterSeconds + "s",
+            "RATE_LIMITED",
+            request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
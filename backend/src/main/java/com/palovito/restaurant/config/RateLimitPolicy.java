@@ -0,0 +1,21 @@
+package com.palovito.restaurant.config;
+
+/**
+ * A token bucket refilled at {@code permitsPerSecond} that holds at most
+ * {@code burst} tokens, so a client can send {@code burst} requests at once
+ * and then {@code permitsPerSecond} on average.
+ */
+public record RateLimitPolicy(String name, double permitsPerSecond, int burst) {
+    public RateLimitPolicy {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a positive rate and a burst of at least 1");
+        }
+    }
+
+    /**
+     * Time it takes to refill one token.
+     */
+    public long intervalNanos() {
+        return (long) (1_000_000_000L / permitsPerSecond);
+    }
+}
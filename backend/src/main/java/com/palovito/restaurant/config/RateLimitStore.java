@@ -0,0 +1,14 @@
+package com.palovito.restaurant.config;
+
+import java.time.Duration;
+
+/**
+ * The token buckets behind {@link RateLimitFilter}, one per key.
+ */
+public interface RateLimitStore {
+    /**
+     * Takes a token from the key's bucket. Returns {@link Duration#ZERO} if
+     * one was available, otherwise how long until the next one is.
+     */
+    Duration tryAcquire(String key, RateLimitPolicy policy);
+}
@@ -1,15 +1,19 @@
 package com.palovito.restaurant.config;
 
-import org.springframework.cache.annotation.EnableCaching;
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.service.OrderRedisSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
-@EnableCaching
 public class RedisConfig {
     
     @Bean
@@ -22,4 +26,21 @@ public class RedisConfig {
         template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
         return template;
     }
+
+    @Bean
+    public RedisSerializer<Order> orderRedisSerializer(
+            @Value("${order.cache.format}") OrderRedisSerializer.Format format,
+            @Value("${order.cache.compression-threshold}") int compressionThreshold) {
+        return new OrderRedisSerializer(format, compressionThreshold);
+    }
+
+    // Messages are dispatched on the subscription thread, in the order they
+    // arrive; listeners that do real work hand off to their own executor.
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(new SyncTaskExecutor());
+        return container;
+    }
 } 
\ No newline at end of file
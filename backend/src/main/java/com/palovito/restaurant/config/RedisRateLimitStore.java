@@ -0,0 +1,57 @@
+package com.palovito.restaurant.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Buckets shared by all nodes, kept in Redis under {@code ratelimit:{key}}.
+ * Each request runs one script that applies the same algorithm as
+ * {@link LocalRateLimitStore} against Redis' clock, so the nodes' clocks do
+ * not need to agree. Keys expire once their bucket is full again.
+ *
+ * <p>If Redis cannot be reached requests are let through, so an outage of
+ * the limiter does not take the API down with it.
+ */
+@Slf4j
+public class RedisRateLimitStore implements RateLimitStore {
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    // Returns 0 if a token was taken, otherwise the wait in microseconds
+    private static final RedisScript<Long> TRY_ACQUIRE = RedisScript.of(
+        "local time = redis.call('TIME') " +
+        "local now = tonumber(time[1]) * 1000000 + tonumber(time[2]) " +
+        "local interval = tonumber(ARGV[1]) " +
+        "local capacity = interval * tonumber(ARGV[2]) " +
+        "local current = tonumber(redis.call('GET', KEYS[1]) or now) " +
+        "local next = math.max(current, now) + interval " +
+        "local wait = next - now - capacity " +
+        "if wait > 0 then " +
+        "  return math.ceil(wait) " +
+        "end " +
+        "redis.call('SET', KEYS[1], string.format('%d', next), 'PX', math.ceil((next - now) / 1000) + 1) " +
+        "return 0",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRateLimitStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Duration tryAcquire(String key, RateLimitPolicy policy) {
+        long intervalMicros = Math.max(policy.intervalNanos() / 1000, 1);
+        try {
+            Long wait = redisTemplate.execute(TRY_ACQUIRE, List.of(KEY_PREFIX + key),
+                String.valueOf(intervalMicros), String.valueOf(policy.burst()));
+            return wait != null && wait > 0 ? Duration.ofNanos(wait * 1000) : Duration.ZERO;
+        } catch (Exception e) {
+            log.warn("Rate limit check failed for {}, letting the request through", key, e);
+            return Duration.ZERO;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.palovito.restaurant.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link Cache} with a bounded in-process L1 in front of a shared L2 in
+ * Redis. Reads try L1, then L2, and keep what L2 returned in L1; writes go to
+ * both. Evictions and clears are announced so that the other nodes drop the
+ * entry from their L1 as well.
+ *
+ * <p>L1 hands out the cached instances themselves, so callers must not modify
+ * what they get.
+ */
+public class TwoLevelCache implements Cache {
+    private final Cache remote;
+    private final com.google.common.cache.Cache<String, Object> local;
+    private final BiConsumer<String, String> invalidations;
+
+    /**
+     * @param invalidations called with the cache name and the evicted key,
+     *                      or a null key when the whole cache was cleared
+     */
+    public TwoLevelCache(Cache remote, com.google.common.cache.Cache<String, Object> local,
+                         BiConsumer<String, String> invalidations) {
+        this.remote = remote;
+        this.local = local;
+        this.invalidations = invalidations;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(localKey, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        // Null values are not cached at either level
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        remote.put(key, value);
+        local.put(localKey(key), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        remote.evict(key);
+        local.invalidate(localKey);
+        invalidations.accept(getName(), localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidations.accept(getName(), null);
+    }
+
+    /**
+     * Drops an entry from this node's L1 only, after another node evicted it.
+     */
+    public void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    /**
+     * Empties this node's L1 only, after another node cleared the cache.
+     */
+    public void clearLocal() {
+        local.invalidateAll();
+    }
+
+    // Keys travel between nodes as text in eviction announcements
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,108 @@
+package com.palovito.restaurant.config;
+
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serves a fixed set of {@link TwoLevelCache}s, one per configured
+ * {@link CacheSpec}. Asking for any other cache name returns null, so a
+ * misspelled {@code @Cacheable} fails instead of creating an unbounded cache.
+ *
+ * <p>Evictions are announced on a Redis channel as {@code cacheName} or
+ * {@code cacheName\nkey}; every node, this one included, drops the matching
+ * L1 entries when it receives them. The TTL bounds how stale an L1 entry can
+ * get if an announcement is lost.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+    private static final char SEPARATOR = '\n';
+
+    private final Map<String, TwoLevelCache> caches = new LinkedHashMap<>();
+    private final StringRedisTemplate redisTemplate;
+    private final byte[] channel;
+
+    /**
+     * Bounds for one cache: {@code ttl} applies to both levels and
+     * {@code maxEntries} to each node's L1.
+     */
+    public record CacheSpec(Duration ttl, long maxEntries) {
+    }
+
+    public TwoLevelCacheManager(
+            RedisCacheManager remote,
+            Map<String, CacheSpec> specs,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel.getBytes(StandardCharsets.UTF_8);
+        specs.forEach((name, spec) -> {
+            RedisCache redisCache = (RedisCache) remote.getCache(name);
+            com.google.common.cache.Cache<String, Object> local = CacheBuilder.newBuilder()
+                .maximumSize(spec.maxEntries())
+                .expireAfterWrite(spec.ttl())
+                .recordStats()
+                .build();
+            // cache.* meters tagged cache=<name>.local for L1 and cache=<name> for L2
+            GuavaCacheMetrics.monitor(meterRegistry, local, name + ".local");
+            new RedisCacheMetrics(redisCache, Tags.empty()).bindTo(meterRegistry);
+            caches.put(name, new TwoLevelCache(redisCache, local, this::announce));
+        });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.get(name);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private void announce(String cacheName, String key) {
+        String body = key == null ? cacheName : cacheName + SEPARATOR + key;
+        byte[] message = body.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+        } catch (Exception e) {
+            log.warn("Failed to announce eviction from cache {}, other nodes may serve it stale for up to its TTL",
+                cacheName, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(SEPARATOR);
+        TwoLevelCache cache = caches.get(separator < 0 ? body : body.substring(0, separator));
+        if (cache == null) {
+            log.debug("Ignoring eviction for unknown cache {}", body);
+            return;
+        }
+        if (separator < 0) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(body.substring(separator + 1));
+        }
+    }
+}
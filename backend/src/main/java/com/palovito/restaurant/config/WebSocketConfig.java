@@ -1,17 +1,93 @@
 package com.palovito.restaurant.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.*;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${websocket.inbound.core-pool-size}")
+    private int inboundCorePoolSize;
+
+    @Value("${websocket.inbound.max-pool-size}")
+    private int inboundMaxPoolSize;
+
+    @Value("${websocket.inbound.queue-capacity}")
+    private int inboundQueueCapacity;
+
+    @Value("${websocket.outbound.core-pool-size}")
+    private int outboundCorePoolSize;
+
+    @Value("${websocket.outbound.max-pool-size}")
+    private int outboundMaxPoolSize;
+
+    @Value("${websocket.outbound.queue-capacity}")
+    private int outboundQueueCapacity;
+
+    @Value("${websocket.send-time-limit}")
+    private Duration sendTimeLimit;
+
+    @Value("${websocket.send-buffer-size-limit}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.message-size-limit}")
+    private int messageSizeLimit;
+
+    @Value("${websocket.heartbeat-interval}")
+    private Duration heartbeatInterval;
+
+    @Value("${websocket.slow-consumer.policy}")
+    private WebSocketSessionMonitor.SlowConsumerPolicy slowConsumerPolicy;
+
+    @Value("${websocket.slow-consumer.send-threshold}")
+    private Duration slowSendThreshold;
+
+    private TaskScheduler messageBrokerTaskScheduler;
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    private WebSocketSessionMonitor sessionMonitor;
+
+    // Setter injection keeps the no-arg constructor for subclasses, and @Lazy
+    // breaks the cycle with the broker configuration that defines the scheduler.
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler) {
+        this.messageBrokerTaskScheduler = taskScheduler;
+    }
+
+    @Autowired
+    public void setMeterRegistry(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void initSessionMonitor() {
+        sessionMonitor = new WebSocketSessionMonitor(
+            meterRegistry.getIfAvailable(SimpleMeterRegistry::new), slowConsumerPolicy, slowSendThreshold);
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        long heartbeat = heartbeatInterval.toMillis();
+        config.enableSimpleBroker("/topic")
+            .setHeartbeatValue(new long[] {heartbeat, heartbeat})
+            .setTaskScheduler(messageBrokerTaskScheduler);
         config.setApplicationDestinationPrefixes("/app");
+        // Messages to one session leave in the order they were published even
+        // though the outbound channel has several threads.
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -19,4 +95,32 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
             .setAllowedOrigins("*");
     }
-} 
\ No newline at end of file
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+            .corePoolSize(inboundCorePoolSize)
+            .maxPoolSize(inboundMaxPoolSize)
+            .queueCapacity(inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+            .corePoolSize(outboundCorePoolSize)
+            .maxPoolSize(outboundMaxPoolSize)
+            .queueCapacity(outboundQueueCapacity);
+        registration.interceptors(sessionMonitor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Sessions that stay blocked longer than the send time limit, or buffer
+        // more than the size limit, are closed by Spring.
+        registration
+            .setSendTimeLimit((int) sendTimeLimit.toMillis())
+            .setSendBufferSizeLimit(sendBufferSizeLimit)
+            .setMessageSizeLimit(messageSizeLimit)
+            .addDecoratorFactory(sessionMonitor);
+    }
+}
@@ -0,0 +1,283 @@
+package com.palovito.restaurant.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the WebSocket sessions' socket writes and applies the slow
+ * consumer policy. A session counts as slow while a single write to it has
+ * been blocked for longer than the threshold; Spring then buffers further
+ * frames for it, up to the transport's send buffer and time limits. Before
+ * that happens, frames for a slow session are either dropped
+ * ({@link SlowConsumerPolicy#DROP_DELTAS}, per-order updates only) or the
+ * session is closed ({@link SlowConsumerPolicy#DISCONNECT}), so it cannot hold
+ * on to outbound threads or memory.
+ *
+ * <p>Meters are aggregated over all sessions: the number of frames queued for
+ * a session when another one is added, and the lag from publishing a frame to
+ * writing it. Individual slow sessions are logged.
+ *
+ * <p>Installed as a handler decorator on the WebSocket transport and as an
+ * interceptor on the client outbound channel.
+ */
+@Slf4j
+public class WebSocketSessionMonitor implements WebSocketHandlerDecoratorFactory, ChannelInterceptor {
+    public enum SlowConsumerPolicy {
+        /** Skip per-order update frames while the session is slow; the kitchen topics are still sent. */
+        DROP_DELTAS,
+        /** Close the session; clients reconnect and reload their orders. */
+        DISCONNECT
+    }
+
+    private static final String ORDER_TOPIC_PREFIX = "/topic/orders/";
+    // Kitchen topics under the same prefix, which carry every order's events
+    private static final Set<String> KITCHEN_TOPICS = Set.of("update", "delete");
+    private static final byte[] MESSAGE_COMMAND = "MESSAGE\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final SlowConsumerPolicy policy;
+    private final long slowSendThresholdNanos;
+    private final Map<String, SessionStats> sessions = new ConcurrentHashMap<>();
+    private final Timer sendTimer;
+    private final Timer lag;
+    private final DistributionSummary queueDepth;
+    private final Counter bytesSent;
+    private final Counter dropped;
+    private final Counter slowDisconnects;
+
+    public WebSocketSessionMonitor(MeterRegistry meterRegistry, SlowConsumerPolicy policy, Duration slowSendThreshold) {
+        this.policy = policy;
+        this.slowSendThresholdNanos = slowSendThreshold.toNanos();
+        this.sendTimer = Timer.builder("websocket.session.send")
+            .description("Time spent writing a frame to a session's socket")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.lag = Timer.builder("websocket.session.lag")
+            .description("Time from publishing a frame to writing it to the session's socket")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.queueDepth = DistributionSummary.builder("websocket.session.queue.depth")
+            .description("Frames queued for a session, sampled whenever one is added")
+            .baseUnit("frames")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.bytesSent = Counter.builder("websocket.session.bytes")
+            .description("Bytes written to the sessions' sockets")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("websocket.session.dropped")
+            .description("Order update frames skipped because the session was slow")
+            .register(meterRegistry);
+        this.slowDisconnects = Counter.builder("websocket.sessions.slow.disconnected")
+            .description("Sessions closed because they could not keep up")
+            .register(meterRegistry);
+        meterRegistry.gaugeMapSize("websocket.sessions.active", List.of(), sessions);
+        meterRegistry.gauge("websocket.sessions.slow", List.of(), sessions,
+            all -> all.values().stream().filter(stats -> stats.isSlow(System.nanoTime())).count());
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionStats stats = new SessionStats(session.getId());
+                sessions.put(session.getId(), stats);
+                super.afterConnectionEstablished(new MonitoredSession(session, stats));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                try {
+                    super.afterConnectionClosed(session, closeStatus);
+                } finally {
+                    sessions.remove(session.getId());
+                }
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE || sessionId == null) {
+            return message;
+        }
+        SessionStats stats = sessions.get(sessionId);
+        if (stats == null) {
+            return message;
+        }
+        long now = System.nanoTime();
+        if (stats.isSlow(now)) {
+            if (policy == SlowConsumerPolicy.DISCONNECT) {
+                stats.disconnect();
+                return null;
+            }
+            stats.reportSlow(now);
+            if (isOrderTopic(SimpMessageHeaderAccessor.getDestination(headers))) {
+                dropped.increment();
+                stats.droppedWhileSlow.incrementAndGet();
+                return null;
+            }
+        }
+        stats.queued(now);
+        return message;
+    }
+
+    /**
+     * Whether the destination is one order's own topic,
+     * {@code /topic/orders/{orderId}}, rather than a kitchen topic.
+     */
+    static boolean isOrderTopic(String destination) {
+        if (destination == null || !destination.startsWith(ORDER_TOPIC_PREFIX)) {
+            return false;
+        }
+        String orderId = destination.substring(ORDER_TOPIC_PREFIX.length());
+        return !orderId.isEmpty() && orderId.indexOf('/') < 0 && !KITCHEN_TOPICS.contains(orderId);
+    }
+
+    // Only MESSAGE frames pass through preSend; heartbeats and receipts do not
+    private static boolean isMessageFrame(WebSocketMessage<?> message) {
+        ByteBuffer frame;
+        if (message instanceof TextMessage text) {
+            frame = ByteBuffer.wrap(text.asBytes());
+        } else if (message instanceof BinaryMessage binary) {
+            frame = binary.getPayload().duplicate();
+        } else {
+            return false;
+        }
+        if (frame.remaining() < MESSAGE_COMMAND.length) {
+            return false;
+        }
+        for (int i = 0; i < MESSAGE_COMMAND.length; i++) {
+            if (frame.get(frame.position() + i) != MESSAGE_COMMAND[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class SessionStats {
+        private final String sessionId;
+        // Publish times of the frames accepted for the session and not yet
+        // written; frames to a session are written in the order published
+        private final Queue<Long> queued = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicLong droppedWhileSlow = new AtomicLong();
+        private volatile long sendStartedAt;
+        private volatile boolean reportedSlow;
+        private volatile WebSocketSession session;
+
+        SessionStats(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        boolean isSlow(long now) {
+            long startedAt = sendStartedAt;
+            return startedAt != 0 && now - startedAt > slowSendThresholdNanos;
+        }
+
+        void queued(long now) {
+            queueDepth.record(depth.incrementAndGet());
+            queued.add(now);
+        }
+
+        void written(WebSocketMessage<?> message, long now) {
+            if (!isMessageFrame(message)) {
+                return;
+            }
+            Long publishedAt = queued.poll();
+            if (publishedAt != null) {
+                depth.decrementAndGet();
+                lag.record(Duration.ofNanos(now - publishedAt));
+            }
+        }
+
+        void reportSlow(long now) {
+            if (reportedSlow) {
+                return;
+            }
+            reportedSlow = true;
+            log.warn("WebSocket session {} is slow, a write has been blocked for {} ms with {} frames queued",
+                sessionId, Duration.ofNanos(now - sendStartedAt).toMillis(), depth.get());
+        }
+
+        void caughtUp() {
+            if (reportedSlow) {
+                reportedSlow = false;
+                log.info("WebSocket session {} caught up, {} order updates were dropped while it was slow",
+                    sessionId, droppedWhileSlow.getAndSet(0));
+            }
+        }
+
+        void disconnect() {
+            WebSocketSession current = session;
+            if (current == null || !current.isOpen()) {
+                return;
+            }
+            log.warn("Closing slow WebSocket session {} with {} frames queued", sessionId, depth.get());
+            slowDisconnects.increment();
+            try {
+                current.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                log.debug("Failed to close slow WebSocket session {}", sessionId, e);
+            }
+        }
+    }
+
+    private final class MonitoredSession extends WebSocketSessionDecorator {
+        private final SessionStats stats;
+
+        MonitoredSession(WebSocketSession session, SessionStats stats) {
+            super(session);
+            this.stats = stats;
+            stats.session = session;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            long start = System.nanoTime();
+            stats.sendStartedAt = start;
+            try {
+                super.sendMessage(message);
+                bytesSent.increment(message.getPayloadLength());
+            } finally {
+                stats.sendStartedAt = 0;
+                long end = System.nanoTime();
+                sendTimer.record(Duration.ofNanos(end - start));
+                stats.written(message, end);
+                stats.caughtUp();
+            }
+        }
+    }
+}
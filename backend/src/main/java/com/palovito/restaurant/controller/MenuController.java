@@ -2,19 +2,28 @@ package com.palovito.restaurant.controller;
 
 import com.palovito.restaurant.model.Menu;
 import com.palovito.restaurant.model.MenuRequest;
+import com.palovito.restaurant.model.MenuSearchPage;
+import com.palovito.restaurant.model.MenuSearchQuery;
+import com.palovito.restaurant.service.MenuPayloadService;
+import com.palovito.restaurant.service.MenuPayloadService.MenuPayload;
 import com.palovito.restaurant.service.MenuService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/menu")
 @RequiredArgsConstructor
 public class MenuController {
     private final MenuService menuService;
+    private final MenuPayloadService menuPayloadService;
 
     @PostMapping
     public ResponseEntity<Menu> createMenu(@RequestBody MenuRequest request) {
@@ -29,13 +38,49 @@ public class MenuController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Menu>> getAllMenus() {
-        return ResponseEntity.ok(menuService.getAllMenus());
+    public ResponseEntity<byte[]> getAllMenus(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return toResponse(menuPayloadService.getAllMenus(), ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Menu>> getMenusByCategory(@PathVariable String categoryId) {
-        return ResponseEntity.ok(menuService.getMenusByCategory(categoryId));
+    public ResponseEntity<byte[]> getMenusByCategory(
+            @PathVariable String categoryId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return toResponse(menuPayloadService.getMenusByCategory(categoryId), ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<MenuSearchPage> searchMenus(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String categoryId,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) Boolean bestSeller,
+            @RequestParam(required = false) Integer minSpicyLevel,
+            @RequestParam(required = false) Integer maxSpicyLevel,
+            @RequestParam(required = false) List<String> excludeAllergens,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        MenuSearchQuery query = MenuSearchQuery.builder()
+            .text(q)
+            .categoryId(categoryId)
+            .available(available)
+            .bestSeller(bestSeller)
+            .minSpicyLevel(minSpicyLevel)
+            .maxSpicyLevel(maxSpicyLevel)
+            .excludedAllergens(excludeAllergens)
+            .build();
+        return ResponseEntity.ok(menuService.searchMenus(query, offset, limit));
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<List<Menu>> filterMenus(
+            @RequestParam(required = false) List<String> excludeAllergens,
+            @RequestParam(required = false) Integer maxCalories,
+            @RequestParam(required = false) String categoryId) {
+        return ResponseEntity.ok(menuService.filterMenus(excludeAllergens, maxCalories, categoryId));
     }
 
     @PutMapping("/{id}")
@@ -65,4 +110,34 @@ public class MenuController {
                 .body("Error deleting menu item: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/archive")
+    public ResponseEntity<Map<String, Integer>> archiveMenus(@RequestBody List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Map.of("archived", menuService.archiveMenus(ids)));
+    }
+
+    private ResponseEntity<byte[]> toResponse(MenuPayload payload, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = payload.hasGzip() && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? payload.getGzipEtag() : payload.getEtag();
+        if (payload.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzipped());
+        }
+        return response.body(payload.getJson());
+    }
+}
\ No newline at end of file
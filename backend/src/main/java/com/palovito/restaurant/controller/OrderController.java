@@ -1,11 +1,15 @@
 package com.palovito.restaurant.controller;
 
 import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderPage;
+import com.palovito.restaurant.model.OrderStatus;
+import com.palovito.restaurant.service.OrderIdempotencyService;
 import com.palovito.restaurant.service.OrderService;
 import lombok.RequiredArgsConstructor;
 
-import java.util.List;
+import java.time.OffsetDateTime;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,15 +22,36 @@ import com.palovito.restaurant.model.StatusUpdateRequest;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIdempotencyService idempotencyService;
 
+    /**
+     * Creates an order. Clients that may retry send an {@code Idempotency-Key}
+     * header; a retry with the same key returns the order created the first
+     * time, marked with {@code Idempotent-Replayed: true}.
+     */
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody OrderRequest orderRequest) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrder(orderRequest));
+    public ResponseEntity<Order> createOrder(
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+        @RequestBody OrderRequest orderRequest
+    ) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrder(orderRequest));
+        }
+        OrderIdempotencyService.Outcome outcome = idempotencyService.createOrder(idempotencyKey, orderRequest);
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+            .body(outcome.order());
     }
 
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<OrderPage> getOrders(
+        @RequestParam(required = false) OrderStatus status,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(orderService.getOrders(status, from, to, cursor, limit));
     }
 
     @PatchMapping("/{orderId}/status")
@@ -5,10 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Entity
 @Table(name = "menus")
@@ -33,10 +36,20 @@ public class MenuEntity {
     private boolean available;
     private int preparationTime;
     private int spicyLevel;
-    private String allergens;
-    private String nutritionalInfo;
     
-    @Builder.Default
-    @OneToMany(mappedBy = "menu", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<OrderItemEntity> orderItems = new ArrayList<>();
+    // Stored as text[] and jsonb so menus can be filtered by allergen and
+    // nutrient in SQL; OrderSchemaMigration backfills them from the legacy
+    // comma-separated allergens and nutritional_info columns.
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "allergen_tags", columnDefinition = "text[]")
+    private List<String> allergens;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "nutrition", columnDefinition = "jsonb")
+    private Map<String, Integer> nutritionalInfo;
+    
+    // Set when the menu is archived instead of deleted; archived menus are
+    // not loaded into the catalog and can no longer be ordered.
+    @Column(name = "archived_at")
+    private OffsetDateTime archivedAt;
 } 
\ No newline at end of file
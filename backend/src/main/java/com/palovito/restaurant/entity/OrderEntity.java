@@ -3,9 +3,12 @@ package com.palovito.restaurant.entity;
 import com.palovito.restaurant.model.OrderStatus;
 import jakarta.persistence.*;
 import lombok.Data;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.ArrayList;
 
+// Indexes on (status, created_at) and (created_at, id) are built concurrently
+// by OrderSchemaMigration rather than by Hibernate, which would lock the table.
 @Entity
 @Table(name = "orders")
 @Data
@@ -19,6 +22,8 @@ public class OrderEntity {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
     
-    private String timestamp;
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
     private double total;
+    private Long version;
 } 
\ No newline at end of file
@@ -2,7 +2,14 @@ package com.palovito.restaurant.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
+import java.math.BigDecimal;
+
+// Lines are snapshots of the menu at order time and hold the menu id as a
+// plain column, without a foreign key, so menus can change or be deleted
+// without touching order history.
 @Entity
 @Table(name = "order_items")
 @Data
@@ -11,13 +18,19 @@ public class OrderItemEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne
-    @JoinColumn(name = "menu_id")
-    private MenuEntity menu;
+    @Column(name = "menu_id")
+    private String menuId;
+    
+    private String name;
+    
+    @Column(name = "unit_price")
+    private BigDecimal unitPrice;
     
     private int quantity;
     
     @ManyToOne
     @JoinColumn(name = "order_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private OrderEntity order;
-} 
\ No newline at end of file
+}
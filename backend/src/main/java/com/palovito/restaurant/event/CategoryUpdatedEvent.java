@@ -0,0 +1,14 @@
+package com.palovito.restaurant.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a category's name or description changed, so that
+ * snapshots embedding the category can be rebuilt.
+ */
+@Data
+@AllArgsConstructor
+public class CategoryUpdatedEvent {
+    private String categoryId;
+}
@@ -0,0 +1,8 @@
+package com.palovito.restaurant.event;
+
+/**
+ * Published when another node announced a menu change, so that this node's
+ * menu catalog is reloaded from the database.
+ */
+public class MenuCatalogInvalidatedEvent {
+}
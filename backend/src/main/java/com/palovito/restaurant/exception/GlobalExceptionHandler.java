@@ -22,6 +22,45 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
     
+    @ExceptionHandler(OrderConflictException.class)
+    public ResponseEntity<ErrorResponse> handleOrderConflictException(
+            OrderConflictException ex, 
+            HttpServletRequest request) {
+        ErrorResponse error = new ErrorResponse(
+            "Conflict",
+            ex.getMessage(),
+            "ORDER_CONFLICT",
+            request.getRequestURI()
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+    
+    @ExceptionHandler(IdempotentRequestInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotentRequestInProgressException(
+            IdempotentRequestInProgressException ex, 
+            HttpServletRequest request) {
+        ErrorResponse error = new ErrorResponse(
+            "Conflict",
+            ex.getMessage(),
+            "REQUEST_IN_PROGRESS",
+            request.getRequestURI()
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+    
+    @ExceptionHandler(IdempotentOrderPurgedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotentOrderPurgedException(
+            IdempotentOrderPurgedException ex, 
+            HttpServletRequest request) {
+        ErrorResponse error = new ErrorResponse(
+            "Gone",
+            ex.getMessage(),
+            "ORDER_PURGED",
+            request.getRequestURI()
+        );
+        return new ResponseEntity<>(error, HttpStatus.GONE);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(
             Exception ex, 
@@ -0,0 +1,20 @@
+package com.palovito.restaurant.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the order created for an {@code Idempotency-Key} has since been
+ * removed by the retention purge. The key still belongs to that order, so a
+ * retry must not create another one.
+ */
+@Getter
+public class IdempotentOrderPurgedException extends RuntimeException {
+    private final String idempotencyKey;
+    private final String orderId;
+
+    public IdempotentOrderPurgedException(String idempotencyKey, String orderId) {
+        super("Order " + orderId + " created for Idempotency-Key " + idempotencyKey + " no longer exists");
+        this.idempotencyKey = idempotencyKey;
+        this.orderId = orderId;
+    }
+}
@@ -0,0 +1,17 @@
+package com.palovito.restaurant.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a request with the same {@code Idempotency-Key} is still being
+ * processed after waiting for it. The caller should retry with the same key.
+ */
+@Getter
+public class IdempotentRequestInProgressException extends RuntimeException {
+    private final String idempotencyKey;
+
+    public IdempotentRequestInProgressException(String idempotencyKey) {
+        super("A request with Idempotency-Key " + idempotencyKey + " is still in progress");
+        this.idempotencyKey = idempotencyKey;
+    }
+}
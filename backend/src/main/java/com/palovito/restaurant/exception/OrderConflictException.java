@@ -0,0 +1,20 @@
+package com.palovito.restaurant.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when an order was changed by someone else between reading it and
+ * writing the change back. The caller should reload the order and retry.
+ */
+@Getter
+public class OrderConflictException extends RuntimeException {
+    private final String orderId;
+    private final long currentVersion;
+
+    public OrderConflictException(String orderId, long expectedVersion, long currentVersion) {
+        super("Order " + orderId + " was modified concurrently (expected version "
+            + expectedVersion + ", current version " + currentVersion + ")");
+        this.orderId = orderId;
+        this.currentVersion = currentVersion;
+    }
+}
@@ -3,10 +3,12 @@ package com.palovito.restaurant.mapper;
 import com.palovito.restaurant.entity.MenuEntity;
 import com.palovito.restaurant.model.Menu;
 import org.springframework.stereotype.Component;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 @Component
 public class MenuMapper {
@@ -28,8 +30,8 @@ public class MenuMapper {
             .available(menu.isAvailable())
             .preparationTime(menu.getPreparationTime())
             .spicyLevel(menu.getSpicyLevel())
-            .allergens(menu.getAllergens() != null ? String.join(",", menu.getAllergens()) : "")
-            .nutritionalInfo(convertNutritionalInfoToString(menu.getNutritionalInfo()))
+            .allergens(menu.getAllergens() != null ? new ArrayList<>(menu.getAllergens()) : new ArrayList<>())
+            .nutritionalInfo(menu.getNutritionalInfo() != null ? new LinkedHashMap<>(menu.getNutritionalInfo()) : new LinkedHashMap<>())
             .build();
     }
 
@@ -49,31 +51,11 @@ public class MenuMapper {
             .available(entity.isAvailable())
             .preparationTime(entity.getPreparationTime())
             .spicyLevel(entity.getSpicyLevel())
-            .allergens(entity.getAllergens() != null && !entity.getAllergens().isEmpty() ? 
-                Arrays.asList(entity.getAllergens().split(",")) : List.of())
-            .nutritionalInfo(entity.getNutritionalInfo() != null && !entity.getNutritionalInfo().isEmpty() ?
-                convertStringToNutritionalInfo(entity.getNutritionalInfo()) : Map.of())
+            // Legacy array values can contain NULL elements, which List.copyOf rejects
+            .allergens(entity.getAllergens() != null ?
+                entity.getAllergens().stream().filter(Objects::nonNull).toList() : List.of())
+            .nutritionalInfo(entity.getNutritionalInfo() != null ?
+                Collections.unmodifiableMap(new LinkedHashMap<>(entity.getNutritionalInfo())) : Map.of())
             .build();
     }
-
-    private String convertNutritionalInfoToString(Map<String, Integer> nutritionalInfo) {
-        if (nutritionalInfo == null || nutritionalInfo.isEmpty()) {
-            return "";
-        }
-        return nutritionalInfo.entrySet().stream()
-            .map(entry -> entry.getKey() + ":" + entry.getValue())
-            .collect(Collectors.joining(","));
-    }
-
-    private Map<String, Integer> convertStringToNutritionalInfo(String nutritionalInfo) {
-        if (nutritionalInfo == null || nutritionalInfo.isEmpty()) {
-            return Map.of();
-        }
-        return Arrays.stream(nutritionalInfo.split(","))
-            .map(entry -> entry.split(":"))
-            .collect(Collectors.toMap(
-                entry -> entry[0],
-                entry -> Integer.parseInt(entry[1])
-            ));
-    }
 }
@@ -5,23 +5,25 @@ import com.palovito.restaurant.entity.OrderItemEntity;
 import com.palovito.restaurant.model.Order;
 import com.palovito.restaurant.model.OrderItem;
 import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.stream.Collectors;
 
 @Component
 public class OrderMapper {
-    private final MenuMapper menuMapper;
-    
-    public OrderMapper(MenuMapper menuMapper) {
-        this.menuMapper = menuMapper;
-    }
     
     public OrderEntity toEntity(Order model) {
         OrderEntity entity = new OrderEntity();
         entity.setId(model.getId());
-        entity.setItems(model.getItems().stream().map(this::toEntity).collect(Collectors.toList()));
+        entity.setItems(model.getItems().stream()
+            .map(item -> toEntity(item, entity))
+            .collect(Collectors.toList()));
         entity.setStatus(model.getStatus());
-        entity.setTimestamp(model.getTimestamp());
+        entity.setCreatedAt(parseTimestamp(model.getTimestamp()));
         entity.setTotal(model.getTotal());
+        entity.setVersion(model.getVersion());
         return entity;
     }
     
@@ -29,25 +31,46 @@ public class OrderMapper {
         return Order.builder()
             .id(entity.getId())
             .status(entity.getStatus())
-            .timestamp(entity.getTimestamp())
+            .timestamp(entity.getCreatedAt() != null ? entity.getCreatedAt().toString() : null)
             .total(entity.getTotal())
+            .version(entity.getVersion() != null ? entity.getVersion() : 0)
             .items(entity.getItems().stream()
                 .map(this::toOrderItem)
                 .collect(Collectors.toList()))
             .build();
     }
     
-    private OrderItemEntity toEntity(OrderItem item) {
+    /**
+     * Parses an order timestamp. Orders cached before timestamps carried an
+     * offset are interpreted in the server's time zone.
+     */
+    public static OffsetDateTime parseTimestamp(String timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(timestamp);
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(timestamp).atZone(ZoneId.systemDefault()).toOffsetDateTime();
+        }
+    }
+    
+    private OrderItemEntity toEntity(OrderItem item, OrderEntity order) {
         OrderItemEntity entity = new OrderItemEntity();
+        entity.setMenuId(item.getMenuId());
+        entity.setName(item.getName());
+        entity.setUnitPrice(item.getUnitPrice());
         entity.setQuantity(item.getQuantity());
-        entity.setMenu(menuMapper.toEntity(item.getMenu()));
+        entity.setOrder(order);
         return entity;
     }
     
     private OrderItem toOrderItem(OrderItemEntity entity) {
         return new OrderItem(
             entity.getId().toString(),
-            menuMapper.toModel(entity.getMenu()),
+            entity.getMenuId(),
+            entity.getName(),
+            entity.getUnitPrice(),
             entity.getQuantity()
         );
     }
@@ -0,0 +1,214 @@
+package com.palovito.restaurant.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Online schema changes for the order tables that Hibernate's ddl-auto cannot
+ * do without locking a large table. Every step is idempotent and runs in
+ * autocommit mode once the application is ready:
+ * <ul>
+ *   <li>backfills {@code orders.created_at} from the legacy text
+ *       {@code timestamp} column in small batches, so only a few rows are
+ *       locked at a time, and skips rows whose timestamp does not parse</li>
+ *   <li>converts the legacy comma-separated {@code menus.allergens} and
+ *       {@code menus.nutritional_info} text into the {@code allergen_tags}
+ *       array and {@code nutrition} jsonb columns</li>
+ *   <li>drops the foreign key from {@code order_items.menu_id} to
+ *       {@code menus}, since order lines are now snapshots, and backfills
+ *       their name and unit price from the menu in small batches</li>
+ *   <li>builds the order and menu lookup indexes, including the menu
+ *       allergen and calorie filter indexes, with
+ *       {@code CREATE INDEX CONCURRENTLY}</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "schema.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderSchemaMigration {
+    // Rows whose legacy timestamp does not parse are skipped and keep a null
+    // created_at; the second parameter lists the ones skipped so far.
+    private static final String BACKFILL_CREATED_AT =
+        "UPDATE orders SET created_at = CAST(timestamp AS timestamptz) WHERE id IN (" +
+        "SELECT id FROM orders WHERE created_at IS NULL AND timestamp IS NOT NULL " +
+        "AND NOT (id = ANY(?)) LIMIT ? FOR UPDATE SKIP LOCKED)";
+    private static final String FIND_CREATED_AT_BATCH =
+        "SELECT id FROM orders WHERE created_at IS NULL AND timestamp IS NOT NULL " +
+        "AND NOT (id = ANY(?)) LIMIT ?";
+    private static final String BACKFILL_CREATED_AT_ROW =
+        "UPDATE orders SET created_at = CAST(timestamp AS timestamptz) WHERE id = ? AND created_at IS NULL";
+
+    private static final String FIND_ORDER_ITEM_MENU_FOREIGN_KEYS =
+        "SELECT conname FROM pg_constraint WHERE contype = 'f' " +
+        "AND conrelid = to_regclass('order_items') AND confrelid = to_regclass('menus')";
+
+    // Lines whose menu was already deleted keep an empty snapshot.
+    private static final String BACKFILL_ORDER_ITEM_SNAPSHOTS =
+        "UPDATE order_items i SET name = m.name, unit_price = m.price FROM menus m " +
+        "WHERE m.id = i.menu_id AND i.id IN (" +
+        "SELECT oi.id FROM order_items oi JOIN menus mm ON mm.id = oi.menu_id " +
+        "WHERE oi.unit_price IS NULL LIMIT ? FOR UPDATE OF oi SKIP LOCKED)";
+
+    // Menus are few, so each conversion is a single statement. Nutritional
+    // info was written both as "calories:450,protein:20" and, by updates, as
+    // "{calories=450, protein=20}"; entries that parse as neither are dropped.
+    private static final String BACKFILL_MENU_ALLERGENS =
+        "UPDATE menus SET allergen_tags = ARRAY(" +
+        "SELECT trim(a) FROM unnest(string_to_array(allergens, ',')) a WHERE trim(a) <> '') " +
+        "WHERE allergen_tags IS NULL";
+    private static final String BACKFILL_MENU_NUTRITION =
+        "UPDATE menus SET nutrition = COALESCE((" +
+        "SELECT jsonb_object_agg(trim(split_part(e, ':', 1)), CAST(trim(split_part(e, ':', 2)) AS integer)) " +
+        "FROM unnest(string_to_array(translate(btrim(nutritional_info, '{}'), '=', ':'), ',')) e " +
+        "WHERE e ~ '^\\s*[^:]+:\\s*-?[0-9]+\\s*$'), '{}'::jsonb) " +
+        "WHERE nutrition IS NULL";
+
+    private static final List<IndexDefinition> INDEXES = List.of(
+        new IndexDefinition("idx_orders_status_created_at", "orders (status, created_at)"),
+        new IndexDefinition("idx_orders_created_at_id", "orders (created_at, id)"),
+        new IndexDefinition("idx_order_items_order_id", "order_items (order_id)"),
+        new IndexDefinition("idx_menus_category_id", "menus (category_id)"),
+        new IndexDefinition("idx_menus_allergen_tags", "menus USING gin (allergen_tags)"),
+        new IndexDefinition("idx_menus_calories", "menus (((nutrition ->> 'calories')::integer))")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${schema.migration.batch-size}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            backfillCreatedAt();
+            backfillMenuAttributes();
+            dropOrderItemMenuForeignKeys();
+            backfillOrderItemSnapshots();
+            for (IndexDefinition index : INDEXES) {
+                createIndexConcurrently(index);
+            }
+        } catch (Exception e) {
+            log.error("Order schema migration failed, it will be retried on next startup", e);
+        }
+    }
+
+    private void backfillCreatedAt() {
+        if (!columnExists("orders", "timestamp")) {
+            return;
+        }
+        Set<String> unparseable = new LinkedHashSet<>();
+        long total = 0;
+        int processed;
+        do {
+            int updated;
+            try {
+                updated = jdbcTemplate.update(BACKFILL_CREATED_AT, ps -> {
+                    ps.setArray(1, toArray(ps.getConnection(), unparseable));
+                    ps.setInt(2, batchSize);
+                });
+                processed = updated;
+            } catch (DataAccessException e) {
+                // One bad timestamp fails the whole batch, so redo it row by row
+                List<String> ids = jdbcTemplate.query(FIND_CREATED_AT_BATCH, ps -> {
+                    ps.setArray(1, toArray(ps.getConnection(), unparseable));
+                    ps.setInt(2, batchSize);
+                }, (rs, rowNum) -> rs.getString(1));
+                updated = backfillCreatedAtRows(ids, unparseable);
+                processed = ids.size();
+            }
+            total += updated;
+        } while (processed == batchSize);
+        if (total > 0) {
+            log.info("Backfilled created_at for {} orders", total);
+        }
+        if (!unparseable.isEmpty()) {
+            log.warn("Left created_at empty for {} orders whose legacy timestamp does not parse",
+                unparseable.size());
+        }
+    }
+
+    private int backfillCreatedAtRows(List<String> ids, Set<String> unparseable) {
+        int updated = 0;
+        for (String id : ids) {
+            try {
+                updated += jdbcTemplate.update(BACKFILL_CREATED_AT_ROW, id);
+            } catch (DataAccessException e) {
+                log.warn("Skipping created_at backfill for order {}: {}", id, e.getMostSpecificCause().getMessage());
+                unparseable.add(id);
+            }
+        }
+        return updated;
+    }
+
+    private void backfillMenuAttributes() {
+        int allergens = columnExists("menus", "allergens") ? jdbcTemplate.update(BACKFILL_MENU_ALLERGENS) : 0;
+        int nutrition = columnExists("menus", "nutritional_info") ? jdbcTemplate.update(BACKFILL_MENU_NUTRITION) : 0;
+        if (allergens > 0 || nutrition > 0) {
+            log.info("Converted allergens for {} and nutritional info for {} menus", allergens, nutrition);
+        }
+    }
+
+    private void dropOrderItemMenuForeignKeys() {
+        for (String constraint : jdbcTemplate.queryForList(FIND_ORDER_ITEM_MENU_FOREIGN_KEYS, String.class)) {
+            jdbcTemplate.execute("ALTER TABLE order_items DROP CONSTRAINT IF EXISTS " + constraint);
+            log.info("Dropped foreign key {} from order_items to menus", constraint);
+        }
+    }
+
+    private void backfillOrderItemSnapshots() {
+        long total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(BACKFILL_ORDER_ITEM_SNAPSHOTS, batchSize);
+            total += updated;
+        } while (updated == batchSize);
+        if (total > 0) {
+            log.info("Backfilled menu snapshots for {} order items", total);
+        }
+    }
+
+    private void createIndexConcurrently(IndexDefinition index) {
+        // A failed concurrent build leaves an invalid index behind that IF NOT EXISTS would skip
+        List<Boolean> valid = jdbcTemplate.queryForList(
+            "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?",
+            Boolean.class, index.name());
+        if (!valid.isEmpty() && valid.get(0)) {
+            return;
+        }
+        if (!valid.isEmpty()) {
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index.name());
+        }
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.name() + " ON " + index.definition());
+        log.info("Created index {}", index.name());
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM information_schema.columns WHERE table_name = ? AND column_name = ?",
+            Integer.class, table, column);
+        return count != null && count > 0;
+    }
+
+    private static Array toArray(Connection connection, Collection<String> ids) throws SQLException {
+        return connection.createArrayOf("varchar", ids.toArray());
+    }
+
+    private record IndexDefinition(String name, String definition) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.palovito.restaurant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuSearchPage {
+    private List<Menu> menus;
+    // Number of menus matching the query across all pages
+    private int total;
+    // Offset of the next page, null on the last page
+    private Integer nextOffset;
+}
@@ -0,0 +1,23 @@
+package com.palovito.restaurant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+// Every criterion is optional; null means "any".
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuSearchQuery {
+    // Words matched against name and description, all of which must match
+    private String text;
+    private String categoryId;
+    private Boolean available;
+    private Boolean bestSeller;
+    private Integer minSpicyLevel;
+    private Integer maxSpicyLevel;
+    private List<String> excludedAllergens;
+}
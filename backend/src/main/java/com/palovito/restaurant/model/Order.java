@@ -1,22 +1,46 @@
 package com.palovito.restaurant.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.util.ArrayList;
 import java.util.List;
 
-import org.springframework.data.redis.core.RedisHash;
-
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@RedisHash("Order")
 public class Order {
     private String id;
     private List<OrderItem> items;
     private OrderStatus status;
     private String timestamp;
     private double total;
+    // Incremented on every change; clients use it to discard stale events.
+    private long version;
+
+    /**
+     * A copy that shares nothing mutable with this order, for caches that
+     * hand the same order to several callers.
+     */
+    public Order copy() {
+        List<OrderItem> itemsCopy = null;
+        if (items != null) {
+            itemsCopy = new ArrayList<>(items.size());
+            for (OrderItem item : items) {
+                itemsCopy.add(new OrderItem(item.getId(), item.getMenuId(), item.getName(), item.getUnitPrice(), item.getQuantity()));
+            }
+        }
+        return new Order(id, itemsCopy, status, timestamp, total, version);
+    }
+
+    /**
+     * Completed and cancelled orders; they no longer change in normal operation.
+     */
+    @JsonIgnore
+    public boolean isClosed() {
+        return status == OrderStatus.COMPLETED || status == OrderStatus.CANCELLED;
+    }
 }
\ No newline at end of file
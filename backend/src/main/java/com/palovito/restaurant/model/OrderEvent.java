@@ -0,0 +1,105 @@
+package com.palovito.restaurant.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * What is published on the order topics. Only the fields that changed are
+ * set: status for {@link OrderEventType#STATUS_CHANGED}, the changed lines and
+ * the new total for {@link OrderEventType#ITEMS_CHANGED}. Only
+ * {@link OrderEventType#CREATED} carries the full order. Clients apply an
+ * event only if its version is newer than the order they hold, and apply
+ * whichever fields are present.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderEvent {
+    // Unique per event; nodes relaying events use it to drop duplicates.
+    private String eventId;
+    private OrderEventType type;
+    private String orderId;
+    private long version;
+    private OrderStatus status;
+    private Double total;
+    private List<ItemQuantity> items;
+    private Order order;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemQuantity {
+        private String menuId;
+        private int quantity;
+    }
+
+    public static OrderEvent created(Order order) {
+        return OrderEvent.builder()
+            .eventId(UUID.randomUUID().toString())
+            .type(OrderEventType.CREATED)
+            .orderId(order.getId())
+            .version(order.getVersion())
+            .order(order)
+            .build();
+    }
+
+    public static OrderEvent statusChanged(Order order) {
+        return OrderEvent.builder()
+            .eventId(UUID.randomUUID().toString())
+            .type(OrderEventType.STATUS_CHANGED)
+            .orderId(order.getId())
+            .version(order.getVersion())
+            .status(order.getStatus())
+            .build();
+    }
+
+    public static OrderEvent quantityChanged(Order order, String menuId, int quantity) {
+        return OrderEvent.builder()
+            .eventId(UUID.randomUUID().toString())
+            .type(OrderEventType.ITEMS_CHANGED)
+            .orderId(order.getId())
+            .version(order.getVersion())
+            .total(order.getTotal())
+            .items(List.of(new ItemQuantity(menuId, quantity)))
+            .build();
+    }
+
+    /**
+     * Combines two update events for the same order into one that takes the
+     * order from before the first to after the second. Must not be used for
+     * {@link OrderEventType#CREATED}.
+     */
+    public static OrderEvent merge(OrderEvent first, OrderEvent second) {
+        OrderEvent earlier = first.getVersion() <= second.getVersion() ? first : second;
+        OrderEvent later = earlier == first ? second : first;
+
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (OrderEvent event : List.of(earlier, later)) {
+            if (event.getItems() != null) {
+                event.getItems().forEach(item -> quantities.put(item.getMenuId(), item.getQuantity()));
+            }
+        }
+        List<ItemQuantity> items = new ArrayList<>();
+        quantities.forEach((menuId, quantity) -> items.add(new ItemQuantity(menuId, quantity)));
+
+        return OrderEvent.builder()
+            .eventId(later.getEventId())
+            .type(earlier.getType() == later.getType() ? later.getType() : OrderEventType.UPDATED)
+            .orderId(later.getOrderId())
+            .version(later.getVersion())
+            .status(later.getStatus() != null ? later.getStatus() : earlier.getStatus())
+            .total(later.getTotal() != null ? later.getTotal() : earlier.getTotal())
+            .items(items.isEmpty() ? null : items)
+            .build();
+    }
+}
@@ -0,0 +1,9 @@
+package com.palovito.restaurant.model;
+
+public enum OrderEventType {
+    CREATED,
+    STATUS_CHANGED,
+    ITEMS_CHANGED,
+    // Several changes of different kinds to one order, coalesced into one event
+    UPDATED
+}
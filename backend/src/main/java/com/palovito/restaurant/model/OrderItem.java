@@ -1,30 +1,45 @@
 package com.palovito.restaurant.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
+/**
+ * One order line, with the menu's name and price as they were when the
+ * order was placed. Later menu changes do not affect existing orders.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderItem {
     private String id;
-    private Menu menu;
+    private String menuId;
+    private String name;
+    private BigDecimal unitPrice;
     private int quantity;
 
-    // public OrderItem(String id, Menu menu, int quantity) {
-    //     this.id = id;
-    //     this.menu = menu;
-    //     this.quantity = quantity;
-    // }
+    public static OrderItem of(String id, Menu menu, int quantity) {
+        return new OrderItem(id, menu.getId(), menu.getName(), menu.getPrice(), quantity);
+    }
 
-    public String getId() {
-        return id;
+    @JsonIgnore
+    public double getLineTotal() {
+        return unitPrice != null ? unitPrice.doubleValue() * quantity : 0.0;
     }
 
-    public void setId(String id) {
-        this.id = id;
+    // Orders cached in Redis before lines were snapshots embed the whole menu.
+    @JsonProperty("menu")
+    private void setLegacyMenu(Menu menu) {
+        if (menu != null) {
+            menuId = menu.getId();
+            name = menu.getName();
+            unitPrice = menu.getPrice();
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package com.palovito.restaurant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPage {
+    private List<Order> orders;
+    // Opaque cursor for the next page, null on the last page
+    private String nextCursor;
+}
@@ -7,9 +7,15 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 @Repository
 public interface MenuCategoryRepository extends JpaRepository<MenuCategoryEntity, String> {
     @Modifying
     @Query("DELETE FROM MenuCategoryEntity mc WHERE mc.menuId = :menuId")
     void deleteByMenuId(@Param("menuId") String menuId);
+
+    @Modifying
+    @Query("DELETE FROM MenuCategoryEntity mc WHERE mc.menuId IN :menuIds")
+    void deleteByMenuIdIn(@Param("menuIds") Collection<String> menuIds);
 } 
\ No newline at end of file
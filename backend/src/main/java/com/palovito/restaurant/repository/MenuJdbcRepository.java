@@ -0,0 +1,62 @@
+package com.palovito.restaurant.repository;
+
+import com.palovito.restaurant.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Menu queries on the structured allergen and nutrition columns, written in
+ * SQL so that PostgreSQL can answer them from the indexes created by
+ * {@code OrderSchemaMigration}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MenuJdbcRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Ids of the active menus matching every given filter, in name order.
+     * Null or empty filters are ignored. Results are cached until a menu
+     * changes.
+     */
+    @Cacheable(CacheConfig.MENUS)
+    public List<String> findIds(Collection<String> excludedAllergens, Integer maxCalories, String categoryId) {
+        StringBuilder sql = new StringBuilder("SELECT m.id FROM menus m WHERE m.archived_at IS NULL");
+        List<Object> args = new ArrayList<>();
+        if (categoryId != null) {
+            sql.append(" AND m.category_id = ?");
+            args.add(categoryId);
+        }
+        if (maxCalories != null) {
+            // Matches the expression index on the calories entry
+            sql.append(" AND ((m.nutrition ->> 'calories')::integer) <= ?");
+            args.add(maxCalories);
+        }
+        boolean excludeAllergens = excludedAllergens != null && !excludedAllergens.isEmpty();
+        if (excludeAllergens) {
+            // The overlap lookup can use the GIN index, which a negated
+            // overlap on every row could not
+            sql.append(" AND m.id NOT IN (SELECT a.id FROM menus a WHERE a.allergen_tags && ?)");
+        }
+        sql.append(" ORDER BY m.name, m.id");
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString());
+            int index = 1;
+            for (Object arg : args) {
+                ps.setObject(index++, arg);
+            }
+            if (excludeAllergens) {
+                ps.setArray(index, connection.createArrayOf("text", excludedAllergens.toArray()));
+            }
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1));
+    }
+}
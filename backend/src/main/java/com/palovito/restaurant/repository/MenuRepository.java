@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 
@@ -13,6 +15,12 @@ import java.util.List;
 public interface MenuRepository extends JpaRepository<MenuEntity, String> {
     List<MenuEntity> findByCategoryId(String categoryId);
 
+    List<MenuEntity> findByArchivedAtIsNull();
+
+    @Modifying
+    @Query("UPDATE MenuEntity m SET m.archivedAt = :archivedAt WHERE m.id IN :ids AND m.archivedAt IS NULL")
+    int archiveByIdIn(@Param("ids") Collection<String> ids, @Param("archivedAt") OffsetDateTime archivedAt);
+
     @Modifying
     @Query("DELETE FROM MenuEntity m WHERE m.id = :id")
     void deleteById(@Param("id") String id);
@@ -1,21 +1,64 @@
 package com.palovito.restaurant.repository;
 
 import com.palovito.restaurant.entity.OrderEntity;
+import com.palovito.restaurant.model.OrderStatus;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<OrderEntity, String> {
-    @Modifying
-    @Query("DELETE FROM OrderEntity o WHERE o.timestamp < :cutoff")
-    void deleteByTimestampBefore(@Param("cutoff") String cutoff);
-
-    @Modifying
-    @Query("DELETE FROM OrderItemEntity oi WHERE oi.order.id IN " +
-           "(SELECT o.id FROM OrderEntity o WHERE o.timestamp < :cutoff)")
-    void deleteOrderItemsByTimestampBefore(@Param("cutoff") String cutoff);
+    /**
+     * Keyset page of order ids, newest first. Pass a null cursor for the first page.
+     */
+    @Query("SELECT o.id FROM OrderEntity o " +
+           "WHERE (:status IS NULL OR o.status = :status) " +
+           "AND (:from IS NULL OR o.createdAt >= :from) " +
+           "AND (:to IS NULL OR o.createdAt < :to) " +
+           "AND (:cursorCreatedAt IS NULL OR o.createdAt < :cursorCreatedAt " +
+           "     OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<String> findPageIds(
+        @Param("status") OrderStatus status,
+        @Param("from") OffsetDateTime from,
+        @Param("to") OffsetDateTime to,
+        @Param("cursorCreatedAt") OffsetDateTime cursorCreatedAt,
+        @Param("cursorId") String cursorId,
+        Pageable pageable);
+
+    @Query("SELECT DISTINCT o FROM OrderEntity o " +
+           "LEFT JOIN FETCH o.items " +
+           "WHERE o.id IN :ids")
+    List<OrderEntity> findAllWithItemsByIdIn(@Param("ids") Collection<String> ids);
+
+    // The conditional updates below apply only if the order is still at the
+    // expected version and return 0 otherwise. Rows written before orders were
+    // versioned count as version 0.
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderEntity o SET o.status = :status, o.version = :version + 1 " +
+           "WHERE o.id = :id AND COALESCE(o.version, 0) = :version")
+    int updateStatus(@Param("id") String id, @Param("status") OrderStatus status, @Param("version") long version);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderEntity o SET o.total = :total, o.version = :version + 1 " +
+           "WHERE o.id = :id AND COALESCE(o.version, 0) = :version")
+    int updateTotal(@Param("id") String id, @Param("total") double total, @Param("version") long version);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderItemEntity i SET i.quantity = :quantity " +
+           "WHERE i.order.id = :orderId AND i.menuId = :menuId")
+    int updateItemQuantity(@Param("orderId") String orderId, @Param("menuId") String menuId, @Param("quantity") int quantity);
 } 
\ No newline at end of file
@@ -1,11 +1,16 @@
 package com.palovito.restaurant.service;
 
+import com.palovito.restaurant.config.CacheConfig;
 import com.palovito.restaurant.model.Category;
 import com.palovito.restaurant.repository.CategoryRepository;
 import com.palovito.restaurant.mapper.CategoryMapper;
 import com.palovito.restaurant.entity.CategoryEntity;
+import com.palovito.restaurant.event.CategoryUpdatedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -19,7 +24,9 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final MenuCategoryService menuCategoryService;
     private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public Category createCategory(String name, String description) {
         Category category = new Category(UUID.randomUUID().toString(), name, description);
         CategoryEntity entity = categoryMapper.toEntity(category);
@@ -27,18 +34,21 @@ public class CategoryService {
         return category;
     }
 
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "'all'")
     public List<Category> getAllCategories() {
         return categoryRepository.findAll().stream()
             .map(categoryMapper::toModel)
             .collect(Collectors.toList());
     }
 
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, unless = "#result == null")
     public Category getCategory(String id) {
         return categoryRepository.findById(id)
             .map(categoryMapper::toModel)
             .orElse(null);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public void deleteCategory(String id) {
         if (!categoryRepository.existsById(id)) {
             throw new IllegalArgumentException("Category not found");
@@ -51,12 +61,14 @@ public class CategoryService {
         categoryRepository.deleteById(id);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public Category updateCategory(String id, String name, String description) {
         return categoryRepository.findById(id)
             .map(entity -> {
                 entity.setName(name);
                 entity.setDescription(description);
                 categoryRepository.save(entity);
+                eventPublisher.publishEvent(new CategoryUpdatedEvent(id));
                 log.info("Category updated - ID: {}, Name: {}", id, name);
                 return categoryMapper.toModel(entity);
             })
@@ -66,6 +78,7 @@ public class CategoryService {
             });
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     public void deleteAllCategories() {
         categoryRepository.deleteAll();
     }
@@ -0,0 +1,175 @@
+package com.palovito.restaurant.service;
+
+import com.palovito.restaurant.model.Menu;
+import com.palovito.restaurant.model.MenuSearchPage;
+import com.palovito.restaurant.model.MenuSearchQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the whole menu, indexed by id, by category and, for
+ * search, by the words of each menu's name and description.
+ * Changes never modify a snapshot in place; they produce a new one with a
+ * higher version which {@link MenuService} swaps in atomically. The contained
+ * {@link Menu} objects are shared between readers and must not be modified.
+ */
+public final class MenuCatalog {
+    private final long version;
+    private final Map<String, Menu> menusById;
+    private final Map<String, List<Menu>> menusByCategory;
+    private final List<Menu> menus;
+    private final MenuSearchIndex searchIndex;
+
+    private MenuCatalog(long version, Map<String, Menu> menusById, MenuSearchIndex searchIndex) {
+        this.version = version;
+        this.searchIndex = searchIndex;
+        this.menusById = Collections.unmodifiableMap(menusById);
+        this.menus = List.copyOf(menusById.values());
+
+        Map<String, List<Menu>> byCategory = new HashMap<>();
+        for (Menu menu : menus) {
+            if (menu.getCategory() != null) {
+                byCategory.computeIfAbsent(menu.getCategory().getId(), k -> new ArrayList<>()).add(menu);
+            }
+        }
+        byCategory.replaceAll((categoryId, categoryMenus) -> List.copyOf(categoryMenus));
+        this.menusByCategory = Collections.unmodifiableMap(byCategory);
+    }
+
+    public static MenuCatalog empty(long version) {
+        return new MenuCatalog(version, new LinkedHashMap<>(), MenuSearchIndex.of(List.of()));
+    }
+
+    public static MenuCatalog of(long version, Collection<Menu> menus) {
+        Map<String, Menu> byId = new LinkedHashMap<>();
+        for (Menu menu : menus) {
+            byId.put(menu.getId(), menu);
+        }
+        return new MenuCatalog(version, byId, MenuSearchIndex.of(byId.values()));
+    }
+
+    public MenuCatalog withMenu(Menu menu) {
+        Map<String, Menu> byId = new LinkedHashMap<>(menusById);
+        Menu previous = byId.put(menu.getId(), menu);
+        MenuSearchIndex index = searchIndex.update(previous != null ? List.of(previous) : List.of(), List.of(menu));
+        return new MenuCatalog(version + 1, byId, index);
+    }
+
+    public MenuCatalog withoutMenu(String id) {
+        return withoutMenus(List.of(id));
+    }
+
+    public MenuCatalog withoutMenus(Collection<String> ids) {
+        Map<String, Menu> byId = new LinkedHashMap<>(menusById);
+        List<Menu> removed = new ArrayList<>();
+        for (String id : ids) {
+            Menu menu = byId.remove(id);
+            if (menu != null) {
+                removed.add(menu);
+            }
+        }
+        return new MenuCatalog(version + 1, byId, searchIndex.update(removed, List.of()));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Menu> getMenus() {
+        return menus;
+    }
+
+    public Menu getMenu(String id) {
+        return menusById.get(id);
+    }
+
+    public boolean contains(String id) {
+        return menusById.containsKey(id);
+    }
+
+    public List<Menu> getMenusByCategory(String categoryId) {
+        return menusByCategory.getOrDefault(categoryId, List.of());
+    }
+
+    /**
+     * Returns the menus for the given ids. Ids that are not in the catalog are
+     * simply absent from the returned map.
+     */
+    public Map<String, Menu> getMenus(Collection<String> ids) {
+        Map<String, Menu> result = new HashMap<>();
+        for (String id : ids) {
+            Menu menu = menusById.get(id);
+            if (menu != null) {
+                result.put(id, menu);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * One page of the menus matching every criterion of the query. With search
+     * text, menus whose name contains more of the words come first, then by
+     * name; otherwise menus keep catalog order.
+     */
+    public MenuSearchPage search(MenuSearchQuery query, int offset, int limit) {
+        Set<String> words = MenuSearchIndex.words(query.getText());
+        Collection<Menu> candidates;
+        if (!words.isEmpty()) {
+            candidates = getMenus(searchIndex.search(words)).values();
+        } else if (query.getCategoryId() != null) {
+            candidates = getMenusByCategory(query.getCategoryId());
+        } else {
+            candidates = menus;
+        }
+
+        List<Menu> matches = candidates.stream()
+            .filter(menu -> matches(menu, query))
+            .collect(Collectors.toList());
+        if (!words.isEmpty()) {
+            Map<String, Long> nameHits = new HashMap<>();
+            for (Menu menu : matches) {
+                String name = menu.getName() != null ? menu.getName().toLowerCase(Locale.ROOT) : "";
+                nameHits.put(menu.getId(), words.stream().filter(name::contains).count());
+            }
+            matches.sort(Comparator.comparing((Menu menu) -> nameHits.get(menu.getId()), Comparator.reverseOrder())
+                .thenComparing(Menu::getName, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Menu::getId));
+        }
+
+        int from = Math.min(Math.max(offset, 0), matches.size());
+        int to = Math.min(from + limit, matches.size());
+        return new MenuSearchPage(List.copyOf(matches.subList(from, to)), matches.size(), to < matches.size() ? to : null);
+    }
+
+    private static boolean matches(Menu menu, MenuSearchQuery query) {
+        if (query.getCategoryId() != null
+                && (menu.getCategory() == null || !query.getCategoryId().equals(menu.getCategory().getId()))) {
+            return false;
+        }
+        if (query.getAvailable() != null && menu.isAvailable() != query.getAvailable()) {
+            return false;
+        }
+        if (query.getBestSeller() != null && menu.isBestSeller() != query.getBestSeller()) {
+            return false;
+        }
+        if (query.getMinSpicyLevel() != null && menu.getSpicyLevel() < query.getMinSpicyLevel()) {
+            return false;
+        }
+        if (query.getMaxSpicyLevel() != null && menu.getSpicyLevel() > query.getMaxSpicyLevel()) {
+            return false;
+        }
+        List<String> excluded = query.getExcludedAllergens();
+        return excluded == null || menu.getAllergens() == null
+            || menu.getAllergens().stream().noneMatch(excluded::contains);
+    }
+}
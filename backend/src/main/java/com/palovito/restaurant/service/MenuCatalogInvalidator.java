@@ -0,0 +1,84 @@
+package com.palovito.restaurant.service;
+
+import com.palovito.restaurant.event.MenuCatalogInvalidatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Tells the other nodes to reload their menu catalog after this node changed
+ * a menu. Each node announces on {@code menu.catalog.invalidation-channel}
+ * with its own id and ignores its own announcements. When another node's
+ * announcement arrives, a {@link MenuCatalogInvalidatedEvent} is published.
+ * The scheduled catalog refresh still picks up changes whose announcement was
+ * lost.
+ */
+@Slf4j
+@Component
+public class MenuCatalogInvalidator implements MessageListener {
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChannelTopic topic;
+    private final byte[] channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter invalidations;
+
+    public MenuCatalogInvalidator(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${menu.catalog.invalidation-channel}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.eventPublisher = eventPublisher;
+        this.topic = new ChannelTopic(channel);
+        this.channel = channel.getBytes(StandardCharsets.UTF_8);
+        this.invalidations = Counter.builder("menu.catalog.invalidations")
+            .description("Menu catalog reloads because another node changed a menu")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, topic);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        listenerContainer.removeMessageListener(this, topic);
+    }
+
+    public void announce() {
+        byte[] message = nodeId.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+        } catch (Exception e) {
+            log.warn("Failed to announce menu change, other nodes pick it up with their next catalog refresh", e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            return;
+        }
+        invalidations.increment();
+        eventPublisher.publishEvent(new MenuCatalogInvalidatedEvent());
+    }
+}
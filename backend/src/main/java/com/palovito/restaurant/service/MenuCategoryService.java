@@ -4,6 +4,7 @@ import org.springframework.stereotype.Service;
 
 import com.palovito.restaurant.repository.MenuCategoryRepository;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -42,4 +43,8 @@ public class MenuCategoryService {
     public void removeMenuFromAllCategories(String menuId) {
         menuCategoryRepository.deleteByMenuId(menuId);
     }
+
+    public void removeMenusFromAllCategories(Collection<String> menuIds) {
+        menuCategoryRepository.deleteByMenuIdIn(menuIds);
+    }
 } 
\ No newline at end of file
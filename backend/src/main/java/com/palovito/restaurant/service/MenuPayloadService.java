@@ -0,0 +1,138 @@
+package com.palovito.restaurant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.palovito.restaurant.model.Menu;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized menu responses, built once per {@link MenuCatalog} version and
+ * reused until the catalog changes. Each payload carries a strong ETag derived
+ * from its content so identical catalogs produce the same tag on every instance.
+ */
+@Service
+@RequiredArgsConstructor
+public class MenuPayloadService {
+    private static final int GZIP_MIN_SIZE = 1024;
+
+    private final MenuService menuService;
+    private final ObjectMapper objectMapper;
+
+    private volatile CatalogPayloads payloads;
+
+    public MenuPayload getAllMenus() {
+        CatalogPayloads current = currentPayloads();
+        return current.all;
+    }
+
+    public MenuPayload getMenusByCategory(String categoryId) {
+        CatalogPayloads current = currentPayloads();
+        List<Menu> menus = current.catalog.getMenusByCategory(categoryId);
+        if (menus.isEmpty()) {
+            // Don't let lookups of unknown categories grow the cache
+            return serialize(menus);
+        }
+        return current.byCategory.computeIfAbsent(categoryId, id -> serialize(menus));
+    }
+
+    private CatalogPayloads currentPayloads() {
+        MenuCatalog catalog = menuService.getCatalog();
+        CatalogPayloads current = payloads;
+        if (current == null || current.catalog.getVersion() != catalog.getVersion()) {
+            current = new CatalogPayloads(catalog, serialize(catalog.getMenus()));
+            payloads = current;
+        }
+        return current;
+    }
+
+    private MenuPayload serialize(List<Menu> menus) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(menus);
+            byte[] gzipped = json.length >= GZIP_MIN_SIZE ? gzip(json) : null;
+            return new MenuPayload(json, gzipped, contentHash(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize menu payload", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String contentHash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CatalogPayloads {
+        private final MenuCatalog catalog;
+        private final MenuPayload all;
+        private final Map<String, MenuPayload> byCategory = new ConcurrentHashMap<>();
+
+        private CatalogPayloads(MenuCatalog catalog, MenuPayload all) {
+            this.catalog = catalog;
+            this.all = all;
+        }
+    }
+
+    @Getter
+    public static final class MenuPayload {
+        private final byte[] json;
+        private final byte[] gzipped;
+        private final String etag;
+        private final String gzipEtag;
+
+        private MenuPayload(byte[] json, byte[] gzipped, String hash) {
+            this.json = json;
+            this.gzipped = gzipped;
+            this.etag = "\"" + hash + "\"";
+            this.gzipEtag = "\"" + hash + "-gz\"";
+        }
+
+        public boolean hasGzip() {
+            return gzipped != null;
+        }
+
+        /**
+         * Weak comparison as required for If-None-Match; either representation matches.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(etag) || candidate.equals(gzipEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
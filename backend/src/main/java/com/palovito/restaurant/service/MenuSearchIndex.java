@@ -0,0 +1,153 @@
+package com.palovito.restaurant.service;
+
+import com.palovito.restaurant.model.Menu;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from words in menu names and descriptions to menu ids, kept
+ * inside each {@link MenuCatalog} snapshot. Every suffix of a word, down to
+ * its last character, is indexed and terms are looked up by prefix, so a
+ * term matches anywhere inside a word, which Korean compounds need (찌개 and
+ * even 개 find 김치찌개).
+ *
+ * <p>Immutable like the catalog. Terms are split into sorted shards by their
+ * first character. A change to one menu copies only the shards and posting
+ * sets of that menu's terms; everything else is shared with the previous
+ * index.
+ */
+final class MenuSearchIndex {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<Character, NavigableMap<String, Set<String>>> shards;
+
+    private MenuSearchIndex(Map<Character, NavigableMap<String, Set<String>>> shards) {
+        this.shards = shards;
+    }
+
+    static MenuSearchIndex of(Collection<Menu> menus) {
+        Map<Character, NavigableMap<String, Set<String>>> shards = new HashMap<>();
+        for (Menu menu : menus) {
+            for (String term : terms(menu)) {
+                shards.computeIfAbsent(term.charAt(0), k -> new TreeMap<>())
+                    .computeIfAbsent(term, k -> new HashSet<>())
+                    .add(menu.getId());
+            }
+        }
+        return new MenuSearchIndex(shards);
+    }
+
+    /**
+     * Returns an index without {@code removed} and with {@code added}. A menu
+     * that changed is passed in its old form as removed and its new form as
+     * added.
+     */
+    MenuSearchIndex update(Collection<Menu> removed, Collection<Menu> added) {
+        Map<Character, NavigableMap<String, Set<String>>> updated = new HashMap<>(shards);
+        Set<Character> copiedShards = new HashSet<>();
+        Set<String> copiedTerms = new HashSet<>();
+        for (Menu menu : removed) {
+            for (String term : terms(menu)) {
+                writablePostings(updated, copiedShards, copiedTerms, term).remove(menu.getId());
+            }
+        }
+        for (Menu menu : added) {
+            for (String term : terms(menu)) {
+                writablePostings(updated, copiedShards, copiedTerms, term).add(menu.getId());
+            }
+        }
+        for (String term : copiedTerms) {
+            NavigableMap<String, Set<String>> shard = updated.get(term.charAt(0));
+            if (shard.get(term).isEmpty()) {
+                shard.remove(term);
+                if (shard.isEmpty()) {
+                    updated.remove(term.charAt(0));
+                }
+            }
+        }
+        return new MenuSearchIndex(updated);
+    }
+
+    // Shards and posting sets are shared between snapshots; copy one before
+    // the first change to it within an update.
+    private static Set<String> writablePostings(Map<Character, NavigableMap<String, Set<String>>> shards,
+            Set<Character> copiedShards, Set<String> copiedTerms, String term) {
+        char first = term.charAt(0);
+        NavigableMap<String, Set<String>> shard = shards.get(first);
+        if (copiedShards.add(first)) {
+            shard = shard != null ? new TreeMap<>(shard) : new TreeMap<>();
+            shards.put(first, shard);
+        }
+        if (copiedTerms.add(term)) {
+            Set<String> current = shard.get(term);
+            Set<String> copy = current != null ? new HashSet<>(current) : new HashSet<>();
+            shard.put(term, copy);
+            return copy;
+        }
+        return shard.get(term);
+    }
+
+    /**
+     * Ids of the menus matching every one of the given words, as returned by
+     * {@link #words}. No words match nothing.
+     */
+    Set<String> search(Set<String> words) {
+        Set<String> result = null;
+        for (String word : words) {
+            Set<String> matches = new HashSet<>();
+            NavigableMap<String, Set<String>> shard = shards.get(word.charAt(0));
+            if (shard != null) {
+                for (Set<String> ids : shard.subMap(word, true, word + Character.MAX_VALUE, true).values()) {
+                    matches.addAll(ids);
+                }
+            }
+            if (result == null) {
+                result = matches;
+            } else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : Set.of();
+    }
+
+    /**
+     * Splits text into the lower-cased words that terms are built from.
+     */
+    static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static Set<String> terms(Menu menu) {
+        Set<String> terms = new HashSet<>();
+        for (String text : new String[] {menu.getName(), menu.getDescription()}) {
+            for (String word : words(text)) {
+                terms.add(word);
+                for (int start = 1; start < word.length(); start++) {
+                    terms.add(word.substring(start));
+                }
+            }
+        }
+        return terms;
+    }
+}
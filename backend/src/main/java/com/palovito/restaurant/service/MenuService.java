@@ -3,31 +3,60 @@ package com.palovito.restaurant.service;
 import com.palovito.restaurant.model.Menu;
 import com.palovito.restaurant.model.Category;
 import com.palovito.restaurant.model.MenuRequest;
+import com.palovito.restaurant.model.MenuSearchPage;
+import com.palovito.restaurant.model.MenuSearchQuery;
 import com.palovito.restaurant.entity.MenuEntity;
 import com.palovito.restaurant.mapper.MenuMapper;
+import com.palovito.restaurant.repository.MenuJdbcRepository;
 import com.palovito.restaurant.repository.MenuRepository;
 import com.palovito.restaurant.mapper.CategoryMapper;
+import com.palovito.restaurant.event.CategoryUpdatedEvent;
+import com.palovito.restaurant.event.MenuCatalogInvalidatedEvent;
+import com.palovito.restaurant.config.CacheConfig;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class MenuService {
     private final MenuRepository menuRepository;
+    private final MenuJdbcRepository menuJdbcRepository;
     private final CategoryService categoryService;
     private final MenuCategoryService menuCategoryService;
     private final MenuMapper menuMapper;
     private final CategoryMapper categoryMapper;
+    private final MenuCatalogInvalidator catalogInvalidator;
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    // Reads are served lock-free from the current snapshot; writers and reloads
+    // serialize on catalogLock so that a reload can never drop a concurrent write.
+    private final AtomicReference<MenuCatalog> catalog = new AtomicReference<>();
+    private final Object catalogLock = new Object();
+
+    @CacheEvict(cacheNames = CacheConfig.MENUS, allEntries = true)
     public Menu createMenu(MenuRequest request) {
         Category category = categoryService.getCategory(request.getCategoryId());
         if (category == null) {
@@ -54,6 +83,8 @@ public class MenuService {
             // Save to database
             MenuEntity entity = menuMapper.toEntity(menu);
             menuRepository.save(entity);
+            Menu saved = menuMapper.toModel(entity);
+            changeCatalog(current -> current.withMenu(saved));
             
             menuCategoryService.addMenuToCategory(category.getId(), menu.getId());
             log.info("Menu item created - ID: {}, Name: {}", menu.getId(), menu.getName());
@@ -64,28 +95,92 @@ public class MenuService {
         }
     }
 
+    public MenuCatalog getCatalog() {
+        MenuCatalog current = catalog.get();
+        return current != null ? current : reloadCatalog();
+    }
+
+    // Picks up changes made through other instances whose announcement was lost
+    @Scheduled(fixedDelayString = "${menu.catalog.refresh-interval}")
+    public void refreshCatalog() {
+        reloadCatalog();
+    }
+
+    public MenuCatalog reloadCatalog() {
+        synchronized (catalogLock) {
+            List<Menu> menus = menuRepository.findByArchivedAtIsNull().stream()
+                .map(menuMapper::toModel)
+                .collect(Collectors.toList());
+            MenuCatalog current = catalog.get();
+            MenuCatalog reloaded = MenuCatalog.of(current != null ? current.getVersion() + 1 : 1, menus);
+            catalog.set(reloaded);
+            log.debug("Menu catalog reloaded - version: {}, items: {}", reloaded.getVersion(), menus.size());
+            return reloaded;
+        }
+    }
+
+    @EventListener
+    public void onCategoryUpdated(CategoryUpdatedEvent event) {
+        if (catalog.get() != null) {
+            reloadCatalog();
+        }
+        catalogInvalidator.announce();
+    }
+
+    @EventListener
+    public void onCatalogInvalidated(MenuCatalogInvalidatedEvent event) {
+        if (catalog.get() != null) {
+            reloadCatalog();
+        }
+    }
+
     public List<Menu> getAllMenus() {
-        return menuRepository.findAll().stream()
-            .map(menuMapper::toModel)
-            .collect(Collectors.toList());
+        return getCatalog().getMenus();
     }
 
     public Menu getMenu(String id) {
-        return menuRepository.findById(id)
-            .map(menuMapper::toModel)
-            .orElse(null);
+        return getCatalog().getMenu(id);
+    }
+
+    /**
+     * Resolves all given menu ids against the in-memory catalog. Ids that do not
+     * exist are simply absent from the returned map.
+     */
+    public Map<String, Menu> getMenusByIds(Collection<String> ids) {
+        return getCatalog().getMenus(ids);
     }
 
     public List<Menu> getMenusByCategory(String categoryId) {
-        // Implement logic to get menus by category
-        return menuRepository.findByCategoryId(categoryId).stream()
-            .map(menuMapper::toModel)
+        return getCatalog().getMenusByCategory(categoryId);
+    }
+
+    /**
+     * Searches the in-memory catalog; see {@link MenuCatalog#search}.
+     */
+    public MenuSearchPage searchMenus(MenuSearchQuery query, int offset, int limit) {
+        return getCatalog().search(query, offset, Math.min(Math.max(limit, 1), MAX_SEARCH_PAGE_SIZE));
+    }
+
+    /**
+     * Menus without any of the excluded allergens and, if given, with at most
+     * {@code maxCalories}, in name order. The database selects the ids through
+     * its allergen and calorie indexes; the menus themselves come from the
+     * catalog.
+     */
+    public List<Menu> filterMenus(Collection<String> excludedAllergens, Integer maxCalories, String categoryId) {
+        List<String> ids = menuJdbcRepository.findIds(excludedAllergens, maxCalories, categoryId);
+        MenuCatalog current = getCatalog();
+        return ids.stream()
+            .map(current::getMenu)
+            .filter(Objects::nonNull)
             .collect(Collectors.toList());
     }
 
     
+    @CacheEvict(cacheNames = CacheConfig.MENUS, allEntries = true)
     public Menu updateMenu(String id, MenuRequest request) {
         return menuRepository.findById(id)
+            .filter(existingMenu -> existingMenu.getArchivedAt() == null)
             .map(existingMenu -> {
                 existingMenu.setName(request.getName());
                 existingMenu.setDescription(request.getDescription());
@@ -96,41 +191,97 @@ public class MenuService {
                 existingMenu.setAvailable(request.isAvailable());
                 existingMenu.setPreparationTime(request.getPreparationTime());
                 existingMenu.setSpicyLevel(request.getSpicyLevel());
-                existingMenu.setAllergens(String.join(",", request.getAllergens()));
-                existingMenu.setNutritionalInfo(request.getNutritionalInfo().toString());
+                existingMenu.setAllergens(request.getAllergens() != null ? new ArrayList<>(request.getAllergens()) : new ArrayList<>());
+                existingMenu.setNutritionalInfo(request.getNutritionalInfo() != null ? new LinkedHashMap<>(request.getNutritionalInfo()) : new LinkedHashMap<>());
                 MenuEntity updatedEntity = menuRepository.save(existingMenu);
-                return menuMapper.toModel(updatedEntity);
+                Menu updated = menuMapper.toModel(updatedEntity);
+                changeCatalog(current -> current.withMenu(updated));
+                return updated;
             })
             .orElseThrow(() -> new RuntimeException("Menu not found with id: " + id));
     }
 
+    /**
+     * Deletes a menu item by archiving it; see {@link #archiveMenus}.
+     */
+    @CacheEvict(cacheNames = CacheConfig.MENUS, allEntries = true)
     @Transactional
     public String deleteMenu(String id) {
         try {
-            MenuEntity menu = menuRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Menu item not found with id: " + id));
-            
-            // Remove from categories first
-            menuCategoryService.removeMenuFromAllCategories(id);
-            
-            // Clear order items
-            menu.getOrderItems().clear();
-            
-            // Then delete the menu
-            menuRepository.delete(menu);
+            Menu menu = getMenu(id);
+            if (menu == null) {
+                throw new IllegalArgumentException("Menu item not found with id: " + id);
+            }
+            archiveMenus(List.of(id));
             log.info("Menu item deleted - ID: {}", id);
-            return menu.getName() + " deleted successfully from " + menu.getCategory().getName() + " list";
+            String categoryName = menu.getCategory() != null ? menu.getCategory().getName() : "menu";
+            return menu.getName() + " deleted successfully from " + categoryName + " list";
         } catch (Exception e) {
             log.error("Error deleting menu item: {}", e.getMessage());
             throw new RuntimeException("Failed to delete menu item: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Archives the given menu items with a single UPDATE, without loading them.
+     * Archived items drop out of the catalog, so they can no longer be
+     * ordered, while past orders keep their own snapshot of them. Returns the
+     * number of items archived; unknown or already archived ids are skipped.
+     */
+    @CacheEvict(cacheNames = CacheConfig.MENUS, allEntries = true)
+    @Transactional
+    public int archiveMenus(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        menuCategoryService.removeMenusFromAllCategories(ids);
+        int archived = menuRepository.archiveByIdIn(ids, OffsetDateTime.now());
+        changeCatalog(current -> current.withoutMenus(ids));
+        log.info("Menu items archived - requested: {}, archived: {}", ids.size(), archived);
+        return archived;
+    }
+
     public boolean existsById(String id) {
-        return menuRepository.existsById(id);
+        return getCatalog().contains(id);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.MENUS, allEntries = true)
     public void deleteAllMenus() {
         menuRepository.deleteAll();
+        changeCatalog(current -> MenuCatalog.empty(current.getVersion() + 1));
+    }
+
+    /**
+     * Applies a committed change to this node's catalog and tells the other
+     * nodes to reload theirs.
+     */
+    private void changeCatalog(UnaryOperator<MenuCatalog> change) {
+        afterCommit(() -> {
+            updateCatalog(change);
+            catalogInvalidator.announce();
+        });
+    }
+
+    private void updateCatalog(UnaryOperator<MenuCatalog> change) {
+        synchronized (catalogLock) {
+            // Nothing to patch until the first read loads the snapshot from the database
+            MenuCatalog current = catalog.get();
+            if (current != null) {
+                catalog.set(change.apply(current));
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 } 
\ No newline at end of file
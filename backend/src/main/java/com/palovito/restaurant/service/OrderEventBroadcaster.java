@@ -0,0 +1,112 @@
+package com.palovito.restaurant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.palovito.restaurant.model.OrderEvent;
+import com.palovito.restaurant.model.OrderEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends batches of {@link OrderEvent}s to the STOMP topics of this node. The
+ * kitchen topics receive one frame per batch holding a JSON array of events.
+ * Each order's own topic receives that order's event on its own. Every event
+ * is serialized once; its bytes are reused for both frames, and the
+ * template's message converters are bypassed.
+ */
+@Slf4j
+@Component
+public class OrderEventBroadcaster implements OrderEventTransport {
+    // The kitchen dashboard follows every order on the aggregate topics; customers
+    // subscribe to /topic/orders/{orderId} and only receive their own order.
+    static final String ORDERS_TOPIC = "/topic/orders";
+    static final String ORDER_UPDATES_TOPIC = "/topic/orders/update";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter frames;
+
+    public OrderEventBroadcaster(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.frames = Counter.builder("orders.events.frames")
+            .description("STOMP frames sent for order events")
+            .register(meterRegistry);
+    }
+
+    public static String orderTopic(String orderId) {
+        return ORDERS_TOPIC + "/" + orderId;
+    }
+
+    @Override
+    public void send(List<OrderEvent> events) {
+        List<byte[]> created = new ArrayList<>();
+        List<byte[]> updates = new ArrayList<>();
+
+        for (OrderEvent event : events) {
+            byte[] payload = serialize(event);
+            if (payload == null) {
+                continue;
+            }
+            if (event.getType() == OrderEventType.CREATED) {
+                // Nobody can be subscribed to the order's own topic yet.
+                created.add(payload);
+            } else {
+                updates.add(payload);
+                sendFrame(orderTopic(event.getOrderId()), payload);
+            }
+        }
+
+        if (!created.isEmpty()) {
+            sendFrame(ORDERS_TOPIC, toJsonArray(created));
+        }
+        if (!updates.isEmpty()) {
+            sendFrame(ORDER_UPDATES_TOPIC, toJsonArray(updates));
+        }
+    }
+
+    private void sendFrame(String destination, byte[] payload) {
+        Message<byte[]> message = MessageBuilder.withPayload(payload)
+            .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+            .build();
+        messagingTemplate.send(destination, message);
+        frames.increment();
+    }
+
+    private byte[] serialize(OrderEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {} event for order {}", event.getType(), event.getOrderId(), e);
+            return null;
+        }
+    }
+
+    private static byte[] toJsonArray(List<byte[]> elements) {
+        int size = elements.size() + 1;
+        for (byte[] element : elements) {
+            size += element.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        out.write('[');
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(elements.get(i));
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,151 @@
+package com.palovito.restaurant.service;
+
+import com.palovito.restaurant.model.OrderEvent;
+import com.palovito.restaurant.model.OrderEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues order events and hands them to the {@link OrderEventTransport} in
+ * batches, every {@code order.events.flush-interval}, so request threads never
+ * wait on the broker. Updates to one order within a flush window are
+ * coalesced into a single event. A new order's CREATED event is kept
+ * separately, so the kitchen still sees it before any update.
+ *
+ * <p>Flushing runs on its own thread rather than the shared {@code @Scheduled}
+ * pool, where long jobs such as the retention purge would delay it.
+ */
+@Slf4j
+@Component
+public class OrderEventPublisher {
+    private final OrderEventTransport transport;
+    private final Duration flushInterval;
+    private final int maxPending;
+    private final Map<String, PendingEvents> pending = new ConcurrentHashMap<>();
+    private final Counter published;
+    private final Counter coalesced;
+    private final Counter dropped;
+    private ScheduledExecutorService flusher;
+
+    public OrderEventPublisher(
+            OrderEventTransport transport,
+            MeterRegistry meterRegistry,
+            @Value("${order.events.flush-interval}") Duration flushInterval,
+            @Value("${order.events.max-pending}") int maxPending) {
+        this.transport = transport;
+        this.flushInterval = flushInterval;
+        this.maxPending = maxPending;
+        this.published = Counter.builder("orders.events.published")
+            .description("Order events accepted for publishing")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("orders.events.coalesced")
+            .description("Order events merged into a pending event for the same order")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("orders.events.dropped")
+            .description("Order events discarded because the queue was full")
+            .register(meterRegistry);
+        meterRegistry.gaugeMapSize("orders.events.pending", List.of(), pending);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-event-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(flushInterval.toMillis() * 10, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    public void publish(OrderEvent event) {
+        if (pending.size() >= maxPending && !pending.containsKey(event.getOrderId())) {
+            dropped.increment();
+            log.warn("Order event queue full, dropping {} event for order {}", event.getType(), event.getOrderId());
+            return;
+        }
+        published.increment();
+        pending.compute(event.getOrderId(), (orderId, current) -> {
+            if (current == null) {
+                return PendingEvents.of(event);
+            }
+            if (event.getType() != OrderEventType.CREATED && current.update() != null) {
+                coalesced.increment();
+            }
+            return current.with(event);
+        });
+    }
+
+    /**
+     * Sends everything queued so far. Events published while a flush is
+     * running are left for the next one.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<OrderEvent> batch = new ArrayList<>();
+        for (String orderId : pending.keySet()) {
+            PendingEvents events = pending.remove(orderId);
+            if (events != null) {
+                events.addTo(batch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            transport.send(batch);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush order events", e);
+        }
+    }
+
+    private record PendingEvents(OrderEvent created, OrderEvent update) {
+        static PendingEvents of(OrderEvent event) {
+            return event.getType() == OrderEventType.CREATED
+                ? new PendingEvents(event, null)
+                : new PendingEvents(null, event);
+        }
+
+        PendingEvents with(OrderEvent event) {
+            if (event.getType() == OrderEventType.CREATED) {
+                return new PendingEvents(event, update);
+            }
+            return new PendingEvents(created, update == null ? event : OrderEvent.merge(update, event));
+        }
+
+        void addTo(List<OrderEvent> batch) {
+            if (created != null) {
+                batch.add(created);
+            }
+            if (update != null) {
+                batch.add(update);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.palovito.restaurant.service;
+
+import com.palovito.restaurant.model.OrderEvent;
+
+import java.util.List;
+
+/**
+ * Delivers batches of order events to WebSocket subscribers, either on this
+ * node only ({@link OrderEventBroadcaster}) or on every node
+ * ({@link RedisOrderEventRelay}).
+ */
+public interface OrderEventTransport {
+    void send(List<OrderEvent> events);
+}
@@ -0,0 +1,152 @@
+package com.palovito.restaurant.service;
+
+import com.google.common.hash.Hashing;
+import com.palovito.restaurant.exception.IdempotentOrderPurgedException;
+import com.palovito.restaurant.exception.IdempotentRequestInProgressException;
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Creates an order at most once per {@code Idempotency-Key}. The key is
+ * recorded in Redis under {@code idempotency:order:{key}}:
+ *
+ * <ul>
+ * <li>{@code pending:{token}:{fingerprint}} while the first request creates
+ * the order. The marker expires after {@code order.idempotency.in-flight-timeout}
+ * in case that node dies.</li>
+ * <li>{@code done:{fingerprint}:{orderId}} once it has, for
+ * {@code order.idempotency.ttl}.</li>
+ * </ul>
+ *
+ * <p>A retry with the same key gets the order that was created, in its
+ * current state. A retry that arrives while the first request is still
+ * running waits for it, up to {@code order.idempotency.wait-timeout}. If the
+ * first request failed, its marker is removed and the next retry creates the
+ * order. The fingerprint hashes the request's items, so reusing a key for a
+ * different order is rejected. A retry whose order has been purged since gets
+ * {@link IdempotentOrderPurgedException}; the key is never reused while it is
+ * recorded.
+ */
+@Slf4j
+@Service
+public class OrderIdempotencyService {
+    private static final String KEY_PREFIX = "idempotency:order:";
+    private static final String PENDING = "pending";
+    private static final String DONE = "done";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Only the request that set the marker may remove it
+    private static final RedisScript<Long> RELEASE = RedisScript.of(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+        "  return redis.call('DEL', KEYS[1]) " +
+        "end " +
+        "return 0",
+        Long.class);
+
+    private final OrderService orderService;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    private final Duration waitTimeout;
+    private final Duration pollInterval;
+
+    public record Outcome(Order order, boolean replayed) {
+    }
+
+    public OrderIdempotencyService(
+            OrderService orderService,
+            StringRedisTemplate redisTemplate,
+            @Value("${order.idempotency.ttl}") Duration ttl,
+            @Value("${order.idempotency.in-flight-timeout}") Duration inFlightTimeout,
+            @Value("${order.idempotency.wait-timeout}") Duration waitTimeout,
+            @Value("${order.idempotency.poll-interval}") Duration pollInterval) {
+        this.orderService = orderService;
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+    }
+
+    public Outcome createOrder(String idempotencyKey, OrderRequest request) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String key = KEY_PREFIX + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            String marker = String.join(":", PENDING, UUID.randomUUID().toString(), fingerprint);
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, marker, inFlightTimeout))) {
+                return new Outcome(createAndRecord(key, marker, fingerprint, request), false);
+            }
+
+            String recorded = redisTemplate.opsForValue().get(key);
+            if (recorded != null) {
+                String[] parts = recorded.split(":", 3);
+                String recordedFingerprint = DONE.equals(parts[0]) ? parts[1] : parts[2];
+                if (!fingerprint.equals(recordedFingerprint)) {
+                    throw new IllegalArgumentException("Idempotency-Key " + idempotencyKey + " was already used for a different order");
+                }
+                if (DONE.equals(parts[0])) {
+                    Order order = orderService.getOrder(parts[2]);
+                    if (order != null) {
+                        log.info("Replaying order {} for Idempotency-Key {}", order.getId(), idempotencyKey);
+                        return new Outcome(order, true);
+                    }
+                    // The key still stands for that order; creating another
+                    // one would charge the customer twice
+                    throw new IdempotentOrderPurgedException(idempotencyKey, parts[2]);
+                }
+            }
+            // Still in flight, or just released by a failed attempt
+            if (System.nanoTime() >= deadline) {
+                throw new IdempotentRequestInProgressException(idempotencyKey);
+            }
+            sleep(pollInterval);
+        }
+    }
+
+    private Order createAndRecord(String key, String marker, String fingerprint, OrderRequest request) {
+        Order order;
+        try {
+            order = orderService.createOrder(request);
+        } catch (RuntimeException e) {
+            // Nothing was created, so a retry may try again
+            redisTemplate.execute(RELEASE, List.of(key), marker);
+            throw e;
+        }
+        redisTemplate.opsForValue().set(key, String.join(":", DONE, fingerprint, order.getId()), ttl);
+        return order;
+    }
+
+    private static String fingerprint(OrderRequest request) {
+        StringBuilder items = new StringBuilder();
+        if (request.getItems() != null) {
+            for (OrderRequest.OrderItem item : request.getItems()) {
+                items.append(item.getMenuId()).append('=').append(item.getQuantity()).append(';');
+            }
+        }
+        return Hashing.sha256().hashString(items, StandardCharsets.UTF_8).toString();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight order", e);
+        }
+    }
+}
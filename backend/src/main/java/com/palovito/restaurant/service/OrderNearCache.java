@@ -0,0 +1,184 @@
+package com.palovito.restaurant.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * In-process cache of open orders in front of Redis, bounded by
+ * {@code order.near-cache.max-size} and {@code order.near-cache.ttl}. Orders
+ * leave it once they are completed or cancelled.
+ *
+ * <p>Every change made on this node is announced on a Redis channel as
+ * {@code orderId:version}, one per line when several orders are announced
+ * together, and other nodes drop any older copy they hold.
+ * Nodes also remember the newest version announced for each order, so a slow
+ * read cannot put back a copy that was already replaced. The TTL bounds how
+ * stale a copy can get if an announcement is lost.
+ *
+ * <p>Orders are copied on the way in and out, because callers modify the
+ * orders they get.
+ */
+@Slf4j
+@Component
+public class OrderNearCache implements MessageListener {
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+    private final byte[] channel;
+    private final Cache<String, Order> orders;
+    private final Cache<String, Long> announcedVersions;
+    private final Counter invalidations;
+
+    public OrderNearCache(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${order.near-cache.max-size}") long maxSize,
+            @Value("${order.near-cache.ttl}") Duration ttl,
+            @Value("${order.near-cache.invalidation-channel}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.topic = new ChannelTopic(channel);
+        this.channel = channel.getBytes(StandardCharsets.UTF_8);
+        this.orders = CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        this.announcedVersions = CacheBuilder.newBuilder()
+            .maximumSize(maxSize * 4)
+            .expireAfterWrite(ttl)
+            .build();
+        // Hits, misses, evictions and size as cache.* meters tagged cache=orders.near
+        GuavaCacheMetrics.monitor(meterRegistry, orders, "orders.near");
+        this.invalidations = Counter.builder("orders.near.invalidations")
+            .description("Near-cached orders dropped because another node changed them")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, topic);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        listenerContainer.removeMessageListener(this, topic);
+    }
+
+    public Order get(String orderId) {
+        Order order = orders.getIfPresent(orderId);
+        return order != null ? order.copy() : null;
+    }
+
+    /**
+     * Caches an order read from Redis or the database, unless a newer version
+     * is already cached or was announced.
+     */
+    public void fill(Order order) {
+        Long announced = announcedVersions.getIfPresent(order.getId());
+        if (announced != null && order.getVersion() < announced) {
+            return;
+        }
+        if (!isOpen(order)) {
+            orders.invalidate(order.getId());
+            return;
+        }
+        Order copy = order.copy();
+        orders.asMap().merge(order.getId(), copy,
+            (cached, candidate) -> candidate.getVersion() >= cached.getVersion() ? candidate : cached);
+    }
+
+    /**
+     * Caches an order this node just changed and tells the other nodes to
+     * drop their older copies.
+     */
+    public void changed(Order order) {
+        announcedVersions.put(order.getId(), order.getVersion());
+        fill(order);
+        announce(order.getId(), order.getVersion());
+    }
+
+    /**
+     * Drops orders that were deleted from the database, here and on the other
+     * nodes, with a single announcement. They are announced as newer than any
+     * version, so a copy read before the delete cannot be put back.
+     */
+    public void removed(Collection<String> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        orderIds.forEach(orderId -> announcedVersions.put(orderId, Long.MAX_VALUE));
+        orders.invalidateAll(orderIds);
+        String body = orderIds.stream()
+            .map(orderId -> orderId + ":" + Long.MAX_VALUE)
+            .collect(Collectors.joining("\n"));
+        publish(body, orderIds.size() + " deleted orders");
+    }
+
+    private void announce(String orderId, long version) {
+        publish(orderId + ":" + version, "change of order " + orderId);
+    }
+
+    private void publish(String body, String subject) {
+        byte[] message = body.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+        } catch (Exception e) {
+            log.warn("Failed to announce {}, other nodes may serve stale copies for up to the near cache TTL",
+                subject, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        body.lines().forEach(this::invalidate);
+    }
+
+    private void invalidate(String entry) {
+        int separator = entry.lastIndexOf(':');
+        if (separator <= 0) {
+            return;
+        }
+        String orderId = entry.substring(0, separator);
+        long version;
+        try {
+            version = Long.parseLong(entry.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed order invalidation {}", entry);
+            return;
+        }
+        announcedVersions.asMap().merge(orderId, version, Math::max);
+        // Our own announcements arrive here too and leave the current copy in place
+        Order cached = orders.asMap().get(orderId);
+        if (cached != null && cached.getVersion() < version && orders.asMap().remove(orderId, cached)) {
+            invalidations.increment();
+        }
+    }
+
+    private static boolean isOpen(Order order) {
+        return order.getStatus() == OrderStatus.RECEIVED || order.getStatus() == OrderStatus.PROCESSING;
+    }
+}
@@ -0,0 +1,343 @@
+package com.palovito.restaurant.service;
+
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderItem;
+import com.palovito.restaurant.model.OrderStatus;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores orders in Redis in a compact binary form: a three byte header (marker,
+ * schema version, flags) followed by the order's fields in a fixed order, with
+ * variable-length integers and no field names or type metadata. Bodies of at
+ * least {@code compressionThreshold} bytes are deflated; 0 turns compression
+ * off.
+ *
+ * <p>Values written as JSON by {@link GenericJackson2JsonRedisSerializer},
+ * before this format existed, are still read. With {@link Format#JSON} orders
+ * are also written that way, so nodes running an older release can read them
+ * during a rolling upgrade.
+ */
+public class OrderRedisSerializer implements RedisSerializer<Order> {
+    public enum Format {
+        BINARY,
+        JSON
+    }
+
+    // Never the first byte of a JSON document, so both formats can share keys
+    private static final byte MARKER = (byte) 0xB1;
+    private static final byte SCHEMA_VERSION = 1;
+    private static final int HEADER_LENGTH = 3;
+    private static final byte FLAG_DEFLATED = 0x01;
+
+    // Codes are part of the stored format: append new statuses, never reorder
+    private static final OrderStatus[] STATUSES = {
+        OrderStatus.RECEIVED,
+        OrderStatus.PROCESSING,
+        OrderStatus.COMPLETED,
+        OrderStatus.CANCELLED
+    };
+
+    private final Format format;
+    private final int compressionThreshold;
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+
+    public OrderRedisSerializer(Format format, int compressionThreshold) {
+        this.format = format;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Order order) {
+        if (order == null) {
+            return null;
+        }
+        if (format == Format.JSON) {
+            return json.serialize(order);
+        }
+        Writer body = new Writer();
+        body.writeOrder(order);
+        byte[] encoded = body.toByteArray();
+
+        Writer out = new Writer();
+        out.write(MARKER);
+        out.write(SCHEMA_VERSION);
+        if (compressionThreshold > 0 && encoded.length >= compressionThreshold) {
+            out.write(FLAG_DEFLATED);
+            out.writeVarLong(encoded.length);
+            out.writeBytes(deflate(encoded));
+        } else {
+            out.write(0);
+            out.writeBytes(encoded);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Order deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MARKER) {
+            return (Order) json.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != SCHEMA_VERSION) {
+            throw new SerializationException("Unsupported order format version "
+                + (bytes.length > 1 ? bytes[1] : "(missing)"));
+        }
+        Reader reader = new Reader(bytes, HEADER_LENGTH);
+        if ((bytes[2] & FLAG_DEFLATED) != 0) {
+            int length = (int) reader.readVarLong();
+            reader = new Reader(inflate(bytes, reader.position, length), 0);
+        }
+        return reader.readOrder();
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, input.length - offset);
+            byte[] output = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(output, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new SerializationException("Truncated compressed order: expected " + length + " bytes, got " + read);
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed order", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // Nullable values are written with a leading count or code of 0 for null,
+    // so every other count and code is stored plus one.
+
+    private static final class Writer {
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        void writeOrder(Order order) {
+            writeString(order.getId());
+            writeVarLong(order.getStatus() != null ? statusCode(order.getStatus()) + 1 : 0);
+            writeString(order.getTimestamp());
+            writeLong(Double.doubleToLongBits(order.getTotal()));
+            writeSignedVarLong(order.getVersion());
+            List<OrderItem> items = order.getItems();
+            if (items == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(items.size() + 1L);
+            for (OrderItem item : items) {
+                writeString(item.getId());
+                writeString(item.getMenuId());
+                writeString(item.getName());
+                writeDecimal(item.getUnitPrice());
+                writeSignedVarLong(item.getQuantity());
+            }
+        }
+
+        private static int statusCode(OrderStatus status) {
+            for (int i = 0; i < STATUSES.length; i++) {
+                if (STATUSES[i] == status) {
+                    return i;
+                }
+            }
+            throw new SerializationException("No stored code for order status " + status);
+        }
+
+        void write(int b) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            writeBytes(bytes);
+        }
+
+        void writeDecimal(BigDecimal value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            writeVarLong(unscaled.length + 1L);
+            writeBytes(unscaled);
+            writeSignedVarLong(value.scale());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        Order readOrder() {
+            Order order = new Order();
+            order.setId(readString());
+            int status = (int) readVarLong();
+            if (status > STATUSES.length) {
+                throw new SerializationException("Unknown order status code " + (status - 1));
+            }
+            order.setStatus(status > 0 ? STATUSES[status - 1] : null);
+            order.setTimestamp(readString());
+            order.setTotal(Double.longBitsToDouble(readLong()));
+            order.setVersion(readSignedVarLong());
+            int count = (int) readVarLong();
+            if (count > 0) {
+                List<OrderItem> items = new ArrayList<>(count - 1);
+                for (int i = 1; i < count; i++) {
+                    items.add(new OrderItem(readString(), readString(), readString(), readDecimal(),
+                        (int) readSignedVarLong()));
+                }
+                order.setItems(items);
+            }
+            return order;
+        }
+
+        private int read() {
+            if (position >= bytes.length) {
+                throw new SerializationException("Truncated order value");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed variable-length integer in order value");
+        }
+
+        long readSignedVarLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | read();
+            }
+            return value;
+        }
+
+        String readString() {
+            int length = (int) readVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            checkAvailable(length);
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        BigDecimal readDecimal() {
+            int length = (int) readVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            BigInteger unscaled = new BigInteger(slice(length));
+            return new BigDecimal(unscaled, (int) readSignedVarLong());
+        }
+
+        private byte[] slice(int length) {
+            checkAvailable(length);
+            byte[] slice = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return slice;
+        }
+
+        private void checkAvailable(int length) {
+            if (length > bytes.length - position) {
+                throw new SerializationException("Truncated order value");
+            }
+        }
+    }
+}
@@ -2,33 +2,92 @@ package com.palovito.restaurant.service;
 
 import com.palovito.restaurant.model.Order;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
-import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.stream.Stream;
 
+/**
+ * The single Redis store for orders: one value per order under
+ * {@code order:{id}}, expiring after {@code order.cache.ttl} seconds. The
+ * order's version is kept next to it under {@code order:{id}:version}. Writes
+ * are compare-and-set on that version, so an older copy never replaces a
+ * newer one.
+ *
+ * <p>Order values are written and read with the {@link OrderRedisSerializer}
+ * bean rather than the template's JSON value serializer.
+ */
 @Service
 @RequiredArgsConstructor
 public class OrderRedisService {
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisSerializer<Order> orderSerializer;
     private static final String ORDER_KEY_PREFIX = "order:";
+    private static final String VERSION_KEY_SUFFIX = ":version";
+
+    // Orders cached before versions existed have no version key and are
+    // replaced by any write.
+    private static final byte[] SET_IF_NEWER = (
+        "local cached = tonumber(redis.call('GET', KEYS[2])) " +
+        "if cached and cached >= tonumber(ARGV[1]) then " +
+        "  return 0 " +
+        "end " +
+        "redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3]) " +
+        "redis.call('SET', KEYS[2], ARGV[1], 'EX', ARGV[3]) " +
+        "return 1").getBytes(StandardCharsets.UTF_8);
+
+    @Value("${order.cache.ttl}")
+    private long ttlSeconds;
     
-    public Set<String> getAllOrderKeys() {
-        return redisTemplate.keys(ORDER_KEY_PREFIX + "*");
+    public Order getOrder(String orderId) {
+        byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+            connection.stringCommands().get(bytes(ORDER_KEY_PREFIX + orderId)));
+        return orderSerializer.deserialize(value);
     }
-    
-    public void updateOrder(Order order) {
-        String key = ORDER_KEY_PREFIX + order.getId();
-        redisTemplate.opsForValue().set(key, order, 1, TimeUnit.HOURS);
+
+    /**
+     * Caches an order that was written to or loaded from the database, unless
+     * a newer version is already cached. PostgreSQL is the system of record;
+     * Redis only holds copies.
+     */
+    public void cacheOrder(Order order) {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            setIfNewer(connection, order);
+            return null;
+        });
     }
 
-    public Order getOrder(String orderId) {
-        String key = ORDER_KEY_PREFIX + orderId;
-        return (Order) redisTemplate.opsForValue().get(key);
+    /**
+     * Removes the given orders and their versions, for orders that were
+     * deleted from the database.
+     */
+    public void evictOrders(Collection<String> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        byte[][] keys = orderIds.stream()
+            .flatMap(id -> Stream.of(ORDER_KEY_PREFIX + id, ORDER_KEY_PREFIX + id + VERSION_KEY_SUFFIX))
+            .map(OrderRedisService::bytes)
+            .toArray(byte[][]::new);
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.keyCommands().del(keys));
+    }
+
+    private void setIfNewer(RedisConnection connection, Order order) {
+        connection.scriptingCommands().eval(SET_IF_NEWER, ReturnType.INTEGER, 2,
+            bytes(ORDER_KEY_PREFIX + order.getId()),
+            bytes(ORDER_KEY_PREFIX + order.getId() + VERSION_KEY_SUFFIX),
+            bytes(String.valueOf(order.getVersion())),
+            orderSerializer.serialize(order),
+            bytes(String.valueOf(ttlSeconds)));
     }
 
-    public Order saveOrder(Order order) {
-        updateOrder(order);
-        return order;
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
     }
-} 
\ No newline at end of file
+}
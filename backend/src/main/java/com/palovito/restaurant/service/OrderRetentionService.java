@@ -0,0 +1,185 @@
+package com.palovito.restaurant.service;
+
+import com.palovito.restaurant.config.CacheConfig;
+import com.palovito.restaurant.model.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes expired orders in small chunks, each in its own short transaction.
+ * Rows are claimed with {@code FOR UPDATE SKIP LOCKED}, so the purge never
+ * waits on orders that are being changed and never holds locks long enough to
+ * delay new orders. Retention is configured per status through
+ * {@code order.retention.<status>}, falling back to {@code order.retention.default}.
+ *
+ * <p>Once a chunk has committed, its orders are evicted from Redis and from
+ * the near cache or the completed orders cache, so they are not served after
+ * they were deleted.
+ */
+@Slf4j
+@Service
+public class OrderRetentionService {
+    private static final String CLAIM_EXPIRED =
+        "SELECT id FROM orders WHERE status = ? AND created_at < ? " +
+        "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String DELETE_ITEMS = "DELETE FROM order_items WHERE order_id = ANY(?)";
+    private static final String DELETE_ORDERS = "DELETE FROM orders WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderRedisService redisService;
+    private final OrderNearCache nearCache;
+    private final CacheManager cacheManager;
+    private final Map<OrderStatus, Duration> retention = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderStatus, Counter> deletedOrders = new EnumMap<>(OrderStatus.class);
+    private final Counter deletedItems;
+    private final Counter chunks;
+    private final Timer runTimer;
+    private final AtomicLong lastRunDeleted = new AtomicLong();
+
+    @Value("${order.retention.chunk-size}")
+    private int chunkSize;
+
+    @Value("${order.retention.max-chunks-per-run}")
+    private int maxChunksPerRun;
+
+    @Value("${order.retention.chunk-pause}")
+    private Duration chunkPause;
+
+    public OrderRetentionService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            OrderRedisService redisService,
+            OrderNearCache nearCache,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            Environment environment) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.redisService = redisService;
+        this.nearCache = nearCache;
+        this.cacheManager = cacheManager;
+
+        Duration defaultRetention = environment.getRequiredProperty("order.retention.default", Duration.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            retention.put(status, environment.getProperty(
+                "order.retention." + status.name().toLowerCase(), Duration.class, defaultRetention));
+            deletedOrders.put(status, Counter.builder("orders.retention.deleted")
+                .description("Orders removed by the retention purge")
+                .tag("status", status.name())
+                .register(meterRegistry));
+        }
+        this.deletedItems = Counter.builder("orders.retention.items.deleted")
+            .description("Order items removed by the retention purge")
+            .register(meterRegistry);
+        this.chunks = Counter.builder("orders.retention.chunks")
+            .description("Delete chunks committed by the retention purge")
+            .register(meterRegistry);
+        this.runTimer = Timer.builder("orders.retention.run")
+            .description("Duration of a retention purge run")
+            .register(meterRegistry);
+        meterRegistry.gauge("orders.retention.last.run.deleted", lastRunDeleted);
+    }
+
+    @Scheduled(cron = "${order.retention.cron}")
+    public void purgeExpiredOrders() {
+        runTimer.record(() -> {
+            long deleted = 0;
+            int budget = maxChunksPerRun;
+            for (OrderStatus status : OrderStatus.values()) {
+                OffsetDateTime cutoff = OffsetDateTime.now().minus(retention.get(status));
+                int chunkDeleted;
+                do {
+                    if (budget-- <= 0) {
+                        log.info("Retention purge stopped after {} chunks, continuing next run", maxChunksPerRun);
+                        lastRunDeleted.set(deleted);
+                        return;
+                    }
+                    chunkDeleted = deleteChunk(status, cutoff);
+                    deleted += chunkDeleted;
+                    pauseBetweenChunks(chunkDeleted);
+                } while (chunkDeleted == chunkSize);
+            }
+            lastRunDeleted.set(deleted);
+            if (deleted > 0) {
+                log.info("Retention purge deleted {} orders", deleted);
+            }
+        });
+    }
+
+    private int deleteChunk(OrderStatus status, OffsetDateTime cutoff) {
+        ChunkResult result = transactionTemplate.execute(tx -> {
+            List<String> ids = jdbcTemplate.queryForList(CLAIM_EXPIRED, String.class, status.name(), cutoff, chunkSize);
+            if (ids.isEmpty()) {
+                return new ChunkResult(List.of(), 0, 0);
+            }
+            int items = jdbcTemplate.update(DELETE_ITEMS, ps -> ps.setArray(1, toArray(ps.getConnection(), ids)));
+            int orders = jdbcTemplate.update(DELETE_ORDERS, ps -> ps.setArray(1, toArray(ps.getConnection(), ids)));
+            return new ChunkResult(ids, orders, items);
+        });
+        if (result == null || result.orders() == 0) {
+            return 0;
+        }
+        // Not before the commit: until then a read can still load the rows
+        // and cache them again
+        evictDeleted(status, result.ids());
+        chunks.increment();
+        deletedOrders.get(status).increment(result.orders());
+        deletedItems.increment(result.items());
+        return result.orders();
+    }
+
+    private record ChunkResult(List<String> ids, int orders, int items) {
+    }
+
+    private void evictDeleted(OrderStatus status, List<String> ids) {
+        try {
+            redisService.evictOrders(ids);
+            if (status == OrderStatus.COMPLETED || status == OrderStatus.CANCELLED) {
+                Cache completedOrders = cacheManager.getCache(CacheConfig.COMPLETED_ORDERS);
+                ids.forEach(completedOrders::evict);
+            } else {
+                // Only open orders are near-cached
+                nearCache.removed(ids);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to evict {} purged orders from the caches, they stay cached until they expire",
+                ids.size(), e);
+        }
+    }
+
+    private static Array toArray(Connection connection, List<String> ids) throws SQLException {
+        return connection.createArrayOf("varchar", ids.toArray());
+    }
+
+    private void pauseBetweenChunks(int chunkDeleted) {
+        if (chunkDeleted < chunkSize || chunkPause.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(chunkPause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
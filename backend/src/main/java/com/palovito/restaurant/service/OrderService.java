@@ -2,58 +2,115 @@ package com.palovito.restaurant.service;
 
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.util.UUID;
 import com.palovito.restaurant.model.Order;
 import com.palovito.restaurant.model.OrderStatus;
 import com.palovito.restaurant.model.Menu;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
-import java.time.Duration;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import com.palovito.restaurant.model.OrderEvent;
+import com.palovito.restaurant.model.OrderPage;
 import com.palovito.restaurant.model.OrderRequest;
 import com.palovito.restaurant.model.OrderItem;
 import com.palovito.restaurant.entity.OrderEntity;
+import com.palovito.restaurant.exception.OrderConflictException;
 import com.palovito.restaurant.repository.OrderRepository;
-import com.palovito.restaurant.repository.OrderRedisRepository;
 import com.palovito.restaurant.mapper.OrderMapper;
+import com.palovito.restaurant.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import java.util.stream.Collectors;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.Optional;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.function.Function;
+import java.time.OffsetDateTime;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
-    private final SimpMessagingTemplate messagingTemplate;
+    private final OrderEventPublisher eventPublisher;
     private final MenuService menuService;
     private final OrderRedisService redisService;
+    private final OrderNearCache nearCache;
     private final OrderRepository orderRepository;
-    private final OrderRedisRepository orderRedisRepository;
     private final OrderMapper orderMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final char CURSOR_SEPARATOR = '|';
     
-    @Transactional
-    @Scheduled(fixedRate = 24 * 60 * 60 * 1000) // Run daily
-    public void cleanupOldOrders() {
-        String cutoff = LocalDateTime.now()
-            .minus(Duration.ofDays(1))
-            .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        
-        // First delete order items
-        orderRepository.deleteOrderItemsByTimestampBefore(cutoff);
-        
-        // Then delete orders
-        orderRepository.deleteByTimestampBefore(cutoff);
-    }
-    
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll().stream()
+    /**
+     * One page of orders, newest first. Order ids are paged with a keyset query
+     * and the page's orders are then loaded together with their items in one
+     * fetch-join query, so the cost per page does not depend on history size.
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getOrders(OrderStatus status, OffsetDateTime from, OffsetDateTime to, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        PageCursor position = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+
+        List<String> ids = orderRepository.findPageIds(
+            status,
+            from,
+            to,
+            position != null ? position.createdAt() : null,
+            position != null ? position.id() : null,
+            PageRequest.of(0, pageSize + 1));
+        boolean hasMore = ids.size() > pageSize;
+        List<String> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        if (pageIds.isEmpty()) {
+            return new OrderPage(List.of(), null);
+        }
+
+        Map<String, OrderEntity> entities = orderRepository.findAllWithItemsByIdIn(pageIds).stream()
+            .collect(Collectors.toMap(OrderEntity::getId, Function.identity()));
+        List<Order> orders = pageIds.stream()
+            .map(entities::get)
+            .filter(Objects::nonNull)
             .map(orderMapper::toModel)
             .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore && !orders.isEmpty()) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = encodeCursor(last.getTimestamp(), last.getId());
+        }
+        return new OrderPage(orders, nextCursor);
+    }
+
+    private static String encodeCursor(String timestamp, String id) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((timestamp + CURSOR_SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record PageCursor(OffsetDateTime createdAt, String id) {
+    }
+
+    private static PageCursor decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PageCursor(
+                OffsetDateTime.parse(decoded.substring(0, separator)),
+                decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
     
     public Order createOrder(OrderRequest request) {
@@ -61,63 +118,113 @@ public class OrderService {
             throw new IllegalArgumentException("Order must contain at least one item");
         }
 
+        // Repeated lines for the same menu item stay separate lines
+        Set<String> menuIds = request.getItems().stream()
+            .map(OrderRequest.OrderItem::getMenuId)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Menu> menus = menuService.getMenusByIds(menuIds);
+        List<String> missingIds = menuIds.stream()
+            .filter(menuId -> !menus.containsKey(menuId))
+            .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            throw new IllegalArgumentException("Menu items not found: " + String.join(", ", missingIds));
+        }
+
         List<OrderItem> orderItems = new ArrayList<>();
         double total = 0.0;
 
         for (OrderRequest.OrderItem item : request.getItems()) {
-            Menu menu = menuService.getMenu(item.getMenuId());
-            if (menu == null) {
-                throw new IllegalArgumentException("Menu item not found: " + item.getMenuId());
-            }
-            
-            OrderItem orderItem = new OrderItem(UUID.randomUUID().toString(), menu, item.getQuantity());
+            Menu menu = menus.get(item.getMenuId());
+            OrderItem orderItem = OrderItem.of(UUID.randomUUID().toString(), menu, item.getQuantity());
             orderItems.add(orderItem);
-            total += menu.getPrice().doubleValue() * item.getQuantity();
+            total += orderItem.getLineTotal();
         }
 
         Order order = Order.builder()
             .id(UUID.randomUUID().toString())
             .items(orderItems)
             .status(OrderStatus.RECEIVED)
-            .timestamp(LocalDateTime.now().toString())
+            .timestamp(OffsetDateTime.now().toString())
             .total(total)
+            .version(1)
             .build();
         
         // Save to database
         OrderEntity entity = orderMapper.toEntity(order);
         orderRepository.save(entity);
         
-        // Save to Redis
-        orderRedisRepository.save(order);
+        redisService.cacheOrder(order);
+        nearCache.fill(order);
         
-        messagingTemplate.convertAndSend("/topic/orders", order);
+        eventPublisher.publish(OrderEvent.created(order));
         
         return order;
     }
     
+    /**
+     * Looks the order up in this node's near cache, then in Redis, then in
+     * the completed orders cache and finally in PostgreSQL. Callers may modify
+     * the returned order.
+     */
     public Order getOrder(String orderId) {
-        // Try Redis first
-        Optional<Order> order = orderRedisRepository.findById(orderId);
-        if (order.isPresent()) {
-            return order.get();
+        Order near = nearCache.get(orderId);
+        if (near != null) {
+            return near;
+        }
+
+        Order cached = redisService.getOrder(orderId);
+        if (cached != null) {
+            nearCache.fill(cached);
+            return cached;
+        }
+
+        Cache completedOrders = completedOrders();
+        Order completed = completedOrders.get(orderId, Order.class);
+        if (completed != null) {
+            // The cache hands out shared instances
+            return completed.copy();
         }
         
         // Fallback to PostgreSQL
-        return orderRepository.findById(orderId)
+        Order order = orderRepository.findById(orderId)
             .map(orderMapper::toModel)
             .orElse(null);
+        if (order == null) {
+            return null;
+        }
+        if (order.isClosed()) {
+            // History views read old orders again and again long after they
+            // left the order cache
+            completedOrders.put(orderId, order.copy());
+        } else {
+            redisService.cacheOrder(order);
+            nearCache.fill(order);
+        }
+        return order;
     }
     
+    // Status, cancel and quantity changes write only the columns and rows they
+    // change, with conditional UPDATEs, and then refresh the cached copy.
+
+    /**
+     * Changes the order's status with a single conditional UPDATE. Fails with
+     * {@link OrderConflictException} if the order changed since it was read.
+     */
     public Order updateOrderStatus(String orderId, OrderStatus newStatus) {
         Order order = getOrder(orderId);
-        if (order != null) {
-            order.setStatus(newStatus);
-            orderRepository.save(orderMapper.toEntity(order));
-            redisService.saveOrder(order);
-            messagingTemplate.convertAndSend("/topic/orders/update", order);
-            return order;
+        if (order == null) {
+            return null;
         }
-        return null;
+        long version = order.getVersion();
+        boolean wasClosed = order.isClosed();
+        if (orderRepository.updateStatus(orderId, newStatus, version) == 0) {
+            throw conflict(orderId, version);
+        }
+        order.setStatus(newStatus);
+        order.setVersion(version + 1);
+        cacheChanged(order, wasClosed);
+        eventPublisher.publish(OrderEvent.statusChanged(order));
+        return order;
     }
     
     public Order updateOrderQuantity(String orderId, String menuId, int newQuantity) {
@@ -128,7 +235,7 @@ public class OrderService {
             }
             
             OrderItem itemToUpdate = order.getItems().stream()
-                .filter(item -> item.getMenu().getId().equals(menuId))
+                .filter(item -> menuId.equals(item.getMenuId()))
                 .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("Menu item not found in order"));
             
@@ -136,14 +243,26 @@ public class OrderService {
             
             // Recalculate total
             double total = order.getItems().stream()
-                .mapToDouble(item -> item.getMenu().getPrice().doubleValue() * item.getQuantity())
+                .mapToDouble(OrderItem::getLineTotal)
                 .sum();
-            order.setTotal(total);
+            long version = order.getVersion();
             
-            // Save updates
-            orderRepository.save(orderMapper.toEntity(order));
-            redisService.saveOrder(order);
-            messagingTemplate.convertAndSend("/topic/orders/update", order);
+            // Only the order row and the one item row are written
+            Boolean updated = transactionTemplate.execute(tx -> {
+                if (orderRepository.updateTotal(orderId, total, version) == 0
+                        || orderRepository.updateItemQuantity(orderId, menuId, newQuantity) == 0) {
+                    tx.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(updated)) {
+                throw conflict(orderId, version);
+            }
+            order.setTotal(total);
+            order.setVersion(version + 1);
+            cacheChanged(order, order.isClosed());
+            eventPublisher.publish(OrderEvent.quantityChanged(order, menuId, newQuantity));
             
             return order;
         }
@@ -153,13 +272,49 @@ public class OrderService {
     public Order cancelOrder(String orderId) {
         Order order = getOrder(orderId);
         if (order != null && order.getStatus() != OrderStatus.COMPLETED) {
+            long version = order.getVersion();
+            boolean wasClosed = order.isClosed();
+            if (orderRepository.updateStatus(orderId, OrderStatus.CANCELLED, version) == 0) {
+                throw conflict(orderId, version);
+            }
             order.setStatus(OrderStatus.CANCELLED);
-            orderRepository.save(orderMapper.toEntity(order));
-            redisService.saveOrder(order);
-            messagingTemplate.convertAndSend("/topic/orders/update", order);
+            order.setVersion(version + 1);
+            cacheChanged(order, wasClosed);
+            eventPublisher.publish(OrderEvent.statusChanged(order));
             log.info("Order cancelled - ID: {}", orderId);
             return order;
         }
         return null;
     }
-}
\ No newline at end of file
+    
+    private void cacheChanged(Order order, boolean wasClosed) {
+        redisService.cacheOrder(order);
+        nearCache.changed(order);
+        if (wasClosed) {
+            // The old version may be in the completed orders cache, which
+            // would serve it again once the Redis copy expires
+            completedOrders().evict(order.getId());
+        }
+    }
+
+    private Cache completedOrders() {
+        return cacheManager.getCache(CacheConfig.COMPLETED_ORDERS);
+    }
+
+    private OrderConflictException conflict(String orderId, long expectedVersion) {
+        Order current = orderRepository.findById(orderId)
+            .map(orderMapper::toModel)
+            .orElse(null);
+        if (current != null) {
+            // The cached copy may be the stale one; refresh it so a retry starts
+            // from the latest version.
+            redisService.cacheOrder(current);
+            nearCache.fill(current);
+        }
+        completedOrders().evict(orderId);
+        long currentVersion = current != null ? current.getVersion() : -1;
+        log.info("Order update conflict - ID: {}, expected version: {}, current version: {}",
+            orderId, expectedVersion, currentVersion);
+        return new OrderConflictException(orderId, expectedVersion, currentVersion);
+    }
+}
@@ -0,0 +1,167 @@
+package com.palovito.restaurant.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.palovito.restaurant.model.OrderEvent;
+import com.palovito.restaurant.model.OrderEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans order events out to every backend node. Each batch is serialized once
+ * and published to one Redis channel. Every node, including the one that
+ * published it, receives it and hands it to its own
+ * {@link OrderEventBroadcaster}. A single channel keeps one global order of
+ * batches, and each node delivers them on a single thread, so events for one
+ * order keep their order end to end.
+ *
+ * <p>Nodes remember recently delivered event ids and the latest delivered
+ * version per order. Duplicates and events older than what subscribers
+ * already have are dropped. If publishing fails, the batch is delivered on
+ * this node only rather than lost.
+ *
+ * <p>Enabled with {@code order.events.relay=redis}; replaces the broadcaster
+ * as the publisher's transport.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "order.events.relay", havingValue = "redis")
+public class RedisOrderEventRelay implements OrderEventTransport, MessageListener {
+    private static final TypeReference<List<OrderEvent>> EVENT_BATCH = new TypeReference<>() {};
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final OrderEventBroadcaster broadcaster;
+    private final ObjectMapper objectMapper;
+    private final ChannelTopic topic;
+    private final byte[] channel;
+    private final Cache<String, Boolean> deliveredEvents;
+    private final Cache<String, Long> deliveredVersions;
+    private final ExecutorService delivery = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-event-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter relayed;
+    private final Counter duplicates;
+    private final Counter stale;
+    private final Counter publishFailures;
+
+    public RedisOrderEventRelay(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            OrderEventBroadcaster broadcaster,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${order.events.relay-channel}") String channel,
+            @Value("${order.events.relay-dedupe-window}") Duration dedupeWindow) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.broadcaster = broadcaster;
+        this.objectMapper = objectMapper;
+        this.topic = new ChannelTopic(channel);
+        this.channel = channel.getBytes(StandardCharsets.UTF_8);
+        this.deliveredEvents = CacheBuilder.newBuilder().expireAfterWrite(dedupeWindow).build();
+        this.deliveredVersions = CacheBuilder.newBuilder().expireAfterAccess(dedupeWindow).build();
+        this.relayed = Counter.builder("orders.events.relay.published")
+            .description("Order event batches published to the relay channel")
+            .register(meterRegistry);
+        this.duplicates = Counter.builder("orders.events.relay.duplicates")
+            .description("Relayed order events dropped because they were already delivered")
+            .register(meterRegistry);
+        this.stale = Counter.builder("orders.events.relay.stale")
+            .description("Relayed order events dropped because a newer version was already delivered")
+            .register(meterRegistry);
+        this.publishFailures = Counter.builder("orders.events.relay.publish.failures")
+            .description("Order event batches delivered locally because publishing failed")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, topic);
+    }
+
+    @PreDestroy
+    public void unsubscribe() throws InterruptedException {
+        listenerContainer.removeMessageListener(this, topic);
+        delivery.shutdown();
+        delivery.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void send(List<OrderEvent> events) {
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(events);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, payload));
+            relayed.increment();
+        } catch (Exception e) {
+            log.warn("Failed to relay {} order events, delivering on this node only", events.size(), e);
+            publishFailures.increment();
+            broadcaster.send(events);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // Called on the subscription thread; hand off so that a slow broker
+        // cannot stall other listeners, while keeping the arrival order.
+        byte[] body = message.getBody();
+        delivery.execute(() -> deliver(body));
+    }
+
+    private void deliver(byte[] body) {
+        try {
+            List<OrderEvent> accepted = new ArrayList<>();
+            for (OrderEvent event : objectMapper.readValue(body, EVENT_BATCH)) {
+                if (accept(event)) {
+                    accepted.add(event);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                broadcaster.send(accepted);
+            }
+        } catch (Exception e) {
+            log.error("Failed to deliver relayed order events", e);
+        }
+    }
+
+    private boolean accept(OrderEvent event) {
+        if (event.getEventId() != null
+                && deliveredEvents.asMap().putIfAbsent(event.getEventId(), Boolean.TRUE) != null) {
+            duplicates.increment();
+            return false;
+        }
+        Long delivered = deliveredVersions.getIfPresent(event.getOrderId());
+        if (delivered != null && event.getVersion() < delivered && event.getType() != OrderEventType.CREATED) {
+            stale.increment();
+            return false;
+        }
+        deliveredVersions.put(event.getOrderId(), delivered != null ? Math.max(delivered, event.getVersion()) : event.getVersion());
+        return true;
+    }
+}
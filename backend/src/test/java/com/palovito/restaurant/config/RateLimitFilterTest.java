@@ -0,0 +1,151 @@
+package com.palovito.restaurant.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+class RateLimitFilterTest {
+    private final AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        LocalRateLimitStore store = new LocalRateLimitStore(4, 1000, Duration.ofMinutes(10), nanoTime::get);
+        filter = new RateLimitFilter(
+            store,
+            new RateLimitPolicy("order-writes", 1, 2),
+            new RateLimitPolicy("menu-reads", 10, 5),
+            new RateLimitPolicy("default", 10, 5),
+            "X-API-Key",
+            new ObjectMapper().findAndRegisterModules(),
+            meterRegistry);
+    }
+
+    private MockHttpServletResponse send(String method, String path, String client) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse sendThroughProxy(String peer, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/order");
+        request.setRemoteAddr(peer);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet controller = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+            }
+        };
+        new MockFilterChain(controller, ForwardedHeaderConfig.remoteIpFilter(""), filter).doFilter(request, response);
+        return response;
+    }
+
+    @Test
+    void doFilter_WhenBurstUsedUp_ShouldReturn429WithRetryAfter() throws Exception {
+        // Given
+        send("POST", "/api/order", "10.0.0.1");
+        send("POST", "/api/order", "10.0.0.1");
+
+        // When
+        MockHttpServletResponse response = send("POST", "/api/order", "10.0.0.1");
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("RATE_LIMITED");
+        assertThat(meterRegistry.get("http.rate-limit.rejected").tag("policy", "order-writes")
+            .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_ShouldKeepSeparateBucketsPerClientAndEndpointGroup() throws Exception {
+        // Given
+        send("POST", "/api/order", "10.0.0.1");
+        send("POST", "/api/order", "10.0.0.1");
+
+        // When
+        MockHttpServletResponse otherClient = send("POST", "/api/order", "10.0.0.2");
+        MockHttpServletResponse menuRead = send("GET", "/api/menu", "10.0.0.1");
+        MockHttpServletResponse orderRead = send("GET", "/api/order/order1", "10.0.0.1");
+
+        // Then
+        assertThat(otherClient.getStatus()).isEqualTo(200);
+        assertThat(menuRead.getStatus()).isEqualTo(200);
+        assertThat(orderRead.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_ShouldRefillTokensOverTime() throws Exception {
+        // Given
+        send("POST", "/api/order", "10.0.0.1");
+        send("POST", "/api/order", "10.0.0.1");
+        MockHttpServletResponse limited = send("POST", "/api/order", "10.0.0.1");
+
+        // When
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        MockHttpServletResponse afterRefill = send("POST", "/api/order", "10.0.0.1");
+
+        // Then
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(afterRefill.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_ShouldIdentifyClientsByApiKeyWhenPresent() throws Exception {
+        // Given
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/order");
+            request.addHeader("X-API-Key", "kiosk-1");
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        // When
+        MockHttpServletResponse sameAddressWithoutKey = send("POST", "/api/order", "127.0.0.1");
+
+        // Then
+        assertThat(sameAddressWithoutKey.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_BehindTrustedProxy_ShouldKeepSeparateBucketsPerForwardedClient() throws Exception {
+        // Given
+        sendThroughProxy("10.0.0.5", "198.51.100.10");
+        sendThroughProxy("10.0.0.5", "198.51.100.10");
+
+        // When
+        MockHttpServletResponse sameClient = sendThroughProxy("10.0.0.5", "198.51.100.10");
+        MockHttpServletResponse otherClient = sendThroughProxy("10.0.0.5", "198.51.100.11");
+
+        // Then
+        assertThat(sameClient.getStatus()).isEqualTo(429);
+        assertThat(otherClient.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_WhenUntrustedPeerSendsForwardedFor_ShouldIgnoreIt() throws Exception {
+        // Given
+        sendThroughProxy("203.0.113.7", "198.51.100.1");
+        sendThroughProxy("203.0.113.7", "198.51.100.2");
+
+        // When
+        MockHttpServletResponse response = sendThroughProxy("203.0.113.7", "198.51.100.3");
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+}
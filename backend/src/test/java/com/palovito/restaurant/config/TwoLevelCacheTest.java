@@ -0,0 +1,81 @@
+package com.palovito.restaurant.config;
+
+import com.google.common.cache.CacheBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.ArrayList;
+import java.util.List;
+
+class TwoLevelCacheTest {
+    private ConcurrentMapCache remote;
+    private List<String> announced;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("categories", false);
+        announced = new ArrayList<>();
+        cache = new TwoLevelCache(remote, CacheBuilder.newBuilder().maximumSize(10).build(),
+            (name, key) -> announced.add(name + ":" + key));
+    }
+
+    @Test
+    void get_ShouldServeFromLocalOnceReadFromRemote() {
+        // Given
+        remote.put("cat1", "찌개류");
+
+        // When
+        String first = cache.get("cat1", String.class);
+        remote.evict("cat1");
+        String second = cache.get("cat1", String.class);
+
+        // Then
+        assertThat(first).isEqualTo("찌개류");
+        assertThat(second).isEqualTo("찌개류");
+    }
+
+    @Test
+    void evict_ShouldRemoveBothLevelsAndAnnounceKey() {
+        // Given
+        cache.put("cat1", "찌개류");
+
+        // When
+        cache.evict("cat1");
+
+        // Then
+        assertThat(cache.get("cat1")).isNull();
+        assertThat(remote.get("cat1")).isNull();
+        assertThat(announced).containsExactly("categories:cat1");
+    }
+
+    @Test
+    void evictLocal_ShouldFallBackToRemoteWithoutAnnouncing() {
+        // Given
+        cache.put("cat1", "찌개류");
+        remote.put("cat1", "볶음류");
+
+        // When
+        cache.evictLocal("cat1");
+
+        // Then
+        assertThat(cache.get("cat1", String.class)).isEqualTo("볶음류");
+        assertThat(announced).isEmpty();
+    }
+
+    @Test
+    void clear_ShouldEmptyBothLevelsAndAnnounceWholeCache() {
+        // Given
+        cache.put("cat1", "찌개류");
+        cache.put("cat2", "볶음류");
+
+        // When
+        cache.clear();
+
+        // Then
+        assertThat(cache.get("cat1")).isNull();
+        assertThat(cache.get("cat2")).isNull();
+        assertThat(announced).containsExactly("categories:null");
+    }
+}
@@ -0,0 +1,160 @@
+package com.palovito.restaurant.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketSessionMonitorTest {
+    @Mock
+    private WebSocketHandler handler;
+
+    @Mock
+    private WebSocketSession session;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private WebSocketSession connect(WebSocketSessionMonitor monitor) throws Exception {
+        when(session.getId()).thenReturn("session1");
+        monitor.decorate(handler).afterConnectionEstablished(session);
+        ArgumentCaptor<WebSocketSession> monitored = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(monitored.capture());
+        return monitored.getValue();
+    }
+
+    private static Message<byte[]> frame(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("session1");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static TextMessage stompMessage() {
+        return new TextMessage("MESSAGE\ndestination:/topic/orders\n\n[]\u0000");
+    }
+
+    // Publishes the given frames while a write to the session is blocked
+    private List<Message<?>> publishWhileBlocked(WebSocketSessionMonitor monitor, WebSocketSession monitored,
+                                                 String... destinations) throws Exception {
+        List<Message<?>> sent = new ArrayList<>();
+        doAnswer(invocation -> {
+            Thread.sleep(5);
+            for (String destination : destinations) {
+                sent.add(monitor.preSend(frame(destination), null));
+            }
+            return null;
+        }).when(session).sendMessage(any());
+        monitored.sendMessage(stompMessage());
+        return sent;
+    }
+
+    @Test
+    void isOrderTopic_ShouldMatchOnlyPerOrderTopics() {
+        assertThat(WebSocketSessionMonitor.isOrderTopic("/topic/orders/order1")).isTrue();
+        assertThat(WebSocketSessionMonitor.isOrderTopic("/topic/orders/update")).isFalse();
+        assertThat(WebSocketSessionMonitor.isOrderTopic("/topic/orders/delete")).isFalse();
+        assertThat(WebSocketSessionMonitor.isOrderTopic("/topic/orders")).isFalse();
+        assertThat(WebSocketSessionMonitor.isOrderTopic("/topic/orders/")).isFalse();
+        assertThat(WebSocketSessionMonitor.isOrderTopic("/topic/orders/order1/items")).isFalse();
+        assertThat(WebSocketSessionMonitor.isOrderTopic(null)).isFalse();
+    }
+
+    @Test
+    void preSend_WhenSessionIsSlowWithDropDeltas_ShouldDropOnlyPerOrderFrames() throws Exception {
+        // Given
+        WebSocketSessionMonitor monitor = new WebSocketSessionMonitor(meterRegistry,
+            WebSocketSessionMonitor.SlowConsumerPolicy.DROP_DELTAS, Duration.ofMillis(1));
+        WebSocketSession monitored = connect(monitor);
+
+        // When
+        List<Message<?>> sent = publishWhileBlocked(monitor, monitored,
+            "/topic/orders/order1", "/topic/orders/update", "/topic/orders/delete", "/topic/orders");
+
+        // Then
+        assertThat(sent.get(0)).isNull();
+        assertThat(sent.subList(1, 4)).doesNotContainNull();
+        assertThat(meterRegistry.get("websocket.session.dropped").counter().count()).isEqualTo(1);
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void preSend_WhenSessionIsSlowWithDisconnect_ShouldCloseSession() throws Exception {
+        // Given
+        WebSocketSessionMonitor monitor = new WebSocketSessionMonitor(meterRegistry,
+            WebSocketSessionMonitor.SlowConsumerPolicy.DISCONNECT, Duration.ofMillis(1));
+        WebSocketSession monitored = connect(monitor);
+        when(session.isOpen()).thenReturn(true);
+
+        // When
+        List<Message<?>> sent = publishWhileBlocked(monitor, monitored, "/topic/orders/update");
+
+        // Then
+        assertThat(sent).containsOnlyNulls();
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(meterRegistry.get("websocket.sessions.slow.disconnected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sendMessage_ShouldRecordAggregateQueueDepthAndLag() throws Exception {
+        // Given
+        WebSocketSessionMonitor monitor = new WebSocketSessionMonitor(meterRegistry,
+            WebSocketSessionMonitor.SlowConsumerPolicy.DROP_DELTAS, Duration.ofSeconds(2));
+        WebSocketSession monitored = connect(monitor);
+
+        // When
+        monitor.preSend(frame("/topic/orders/order1"), null);
+        monitor.preSend(frame("/topic/orders/update"), null);
+        monitored.sendMessage(stompMessage());
+        monitored.sendMessage(stompMessage());
+
+        // Then
+        assertThat(meterRegistry.get("websocket.session.queue.depth").summary().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("websocket.session.queue.depth").summary().max()).isEqualTo(2);
+        assertThat(meterRegistry.get("websocket.session.lag").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("websocket.session.send").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.getMeters()).allSatisfy(meter ->
+            assertThat(meter.getId().getTag("session")).isNull());
+    }
+
+    @Test
+    void afterConnectionClosed_ShouldStopTrackingSession() throws Exception {
+        // Given
+        WebSocketSessionMonitor monitor = new WebSocketSessionMonitor(meterRegistry,
+            WebSocketSessionMonitor.SlowConsumerPolicy.DISCONNECT, Duration.ofSeconds(2));
+        when(session.getId()).thenReturn("session1");
+        WebSocketHandler decorated = monitor.decorate(handler);
+        decorated.afterConnectionEstablished(session);
+
+        // When
+        decorated.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        // Then
+        assertThat(meterRegistry.get("websocket.sessions.active").gauge().value()).isZero();
+    }
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.palovito.restaurant.model.Category;
 import com.palovito.restaurant.model.Menu;
 import com.palovito.restaurant.model.MenuRequest;
+import com.palovito.restaurant.service.MenuCatalog;
+import com.palovito.restaurant.service.MenuPayloadService;
 import com.palovito.restaurant.service.MenuService;
 import com.palovito.restaurant.config.SecurityConfig;
 
@@ -14,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.hamcrest.Matchers.hasSize;
@@ -30,7 +33,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(MenuController.class)
 @ExtendWith(MockitoExtension.class)
-@Import({SecurityConfig.class})
+@Import({SecurityConfig.class, MenuPayloadService.class})
 class MenuControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -91,7 +94,7 @@ class MenuControllerTest {
                 .category(category)
                 .build()
         );
-        when(menuService.getAllMenus()).thenReturn(menus);
+        when(menuService.getCatalog()).thenReturn(MenuCatalog.of(1, menus));
 
         // When & Then
         mockMvc.perform(get("/api/menu"))
@@ -117,7 +120,7 @@ class MenuControllerTest {
                 .category(category)
                 .build()
         );
-        when(menuService.getMenusByCategory(categoryId)).thenReturn(menus);
+        when(menuService.getCatalog()).thenReturn(MenuCatalog.of(1, menus));
 
         // When & Then
         mockMvc.perform(get("/api/menu/category/{categoryId}", categoryId))
@@ -127,6 +130,29 @@ class MenuControllerTest {
                 .andExpect(jsonPath("$[0].name").value("김치찌개"));
     }
 
+    @Test
+    void getAllMenus_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        // Given
+        Category category = new Category("cat1", "찌개류", "한국식 찌개");
+        List<Menu> menus = Arrays.asList(
+            Menu.builder()
+                .id("1")
+                .name("김치찌개")
+                .price(BigDecimal.valueOf(15000))
+                .category(category)
+                .build()
+        );
+        when(menuService.getCatalog()).thenReturn(MenuCatalog.of(1, menus));
+        String etag = mockMvc.perform(get("/api/menu"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/menu").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
     @Test
     void updateMenu_WithValidRequest_ShouldReturnUpdatedMenu() throws Exception {
         // Given
@@ -157,4 +183,41 @@ class MenuControllerTest {
                 .andExpect(jsonPath("$.name").value("매운 김치찌개"))
                 .andExpect(jsonPath("$.price").value(16000.0));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void archiveMenus_ShouldArchiveAllGivenMenus() throws Exception {
+        // Given
+        List<String> menuIds = List.of("menu1", "menu2");
+        when(menuService.archiveMenus(menuIds)).thenReturn(2);
+
+        // When & Then
+        mockMvc.perform(post("/api/menu/archive")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(menuIds)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.archived").value(2));
+    }
+
+    @Test
+    void filterMenus_ShouldPassFiltersToService() throws Exception {
+        // Given
+        Category category = new Category("cat1", "찌개류", "한국식 찌개");
+        Menu menu = Menu.builder()
+                .id("menu1")
+                .name("순두부찌개")
+                .price(BigDecimal.valueOf(12000))
+                .category(category)
+                .allergens(List.of("soy"))
+                .build();
+
+        when(menuService.filterMenus(List.of("nuts", "dairy"), 500, null)).thenReturn(List.of(menu));
+
+        // When & Then
+        mockMvc.perform(get("/api/menu/filter")
+                .param("excludeAllergens", "nuts,dairy")
+                .param("maxCalories", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value("menu1"));
+    }
+}
@@ -2,13 +2,17 @@ package com.palovito.restaurant.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderPage;
 import com.palovito.restaurant.model.OrderRequest;
 import com.palovito.restaurant.model.OrderStatus;
 import com.palovito.restaurant.model.StatusUpdateRequest;
 import com.palovito.restaurant.model.OrderItem;
 import com.palovito.restaurant.model.Menu;
 import com.palovito.restaurant.model.Category;
+import com.palovito.restaurant.service.OrderIdempotencyService;
 import com.palovito.restaurant.service.OrderService;
+import com.palovito.restaurant.exception.IdempotentOrderPurgedException;
+import com.palovito.restaurant.exception.OrderConflictException;
 import com.palovito.restaurant.config.SecurityConfig;
 import com.palovito.restaurant.config.WebSocketConfig;
 
@@ -29,12 +33,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -48,6 +57,9 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderIdempotencyService idempotencyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -72,9 +84,7 @@ class OrderControllerTest {
             .category(new Category("cat1", "찌개류", "한국식 찌개"))
             .build();
 
-        OrderItem orderItem = new OrderItem();
-        orderItem.setMenu(menu);
-        orderItem.setQuantity(2);
+        OrderItem orderItem = OrderItem.of("item1", menu, 2);
 
         Order expectedOrder = Order.builder()
             .id("order1")
@@ -96,6 +106,60 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.total").value(30000.0));
     }
 
+    @Test
+    void createOrder_WithIdempotencyKey_ShouldReturnReplayedOrder() throws Exception {
+        // Given
+        OrderRequest request = new OrderRequest();
+        OrderRequest.OrderItem item = new OrderRequest.OrderItem();
+        item.setMenuId("menu1");
+        item.setQuantity(2);
+        request.setItems(List.of(item));
+
+        Order existingOrder = Order.builder()
+            .id("order1")
+            .status(OrderStatus.PROCESSING)
+            .items(new ArrayList<>())
+            .total(30000.0)
+            .build();
+
+        when(idempotencyService.createOrder(eq("checkout-42"), any(OrderRequest.class)))
+            .thenReturn(new OrderIdempotencyService.Outcome(existingOrder, true));
+
+        // When & Then
+        mockMvc.perform(post("/api/order")
+                .header("Idempotency-Key", "checkout-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value("order1"))
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    void createOrder_WhenIdempotentOrderWasPurged_ShouldReturnGone() throws Exception {
+        // Given
+        OrderRequest request = new OrderRequest();
+        OrderRequest.OrderItem item = new OrderRequest.OrderItem();
+        item.setMenuId("menu1");
+        item.setQuantity(2);
+        request.setItems(List.of(item));
+
+        when(idempotencyService.createOrder(eq("checkout-42"), any(OrderRequest.class)))
+            .thenThrow(new IdempotentOrderPurgedException("checkout-42", "order1"));
+
+        // When & Then
+        mockMvc.perform(post("/api/order")
+                .header("Idempotency-Key", "checkout-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.errorCode").value("ORDER_PURGED"))
+                .andExpect(jsonPath("$.details").value(containsString("order1")));
+        verify(orderService, never()).createOrder(any());
+    }
+
     @Test
     void getAllOrders_ShouldReturnListOfOrders() throws Exception {
         // Given
@@ -115,14 +179,15 @@ class OrderControllerTest {
                 .total(35000.0)
                 .build()
         );
-        when(orderService.getAllOrders()).thenReturn(orders);
+        when(orderService.getOrders(null, null, null, null, 50)).thenReturn(new OrderPage(orders, "next"));
 
         // When & Then
         mockMvc.perform(get("/api/order"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].id").value("1"))
-                .andExpect(jsonPath("$[1].id").value("2"));
+                .andExpect(jsonPath("$.orders", hasSize(2)))
+                .andExpect(jsonPath("$.orders[0].id").value("1"))
+                .andExpect(jsonPath("$.orders[1].id").value("2"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
     }
 
     @Test
@@ -151,6 +216,24 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.status").value("PROCESSING"));
     }
 
+    @Test
+    void updateOrderStatus_WhenOrderChangedConcurrently_ShouldReturnConflict() throws Exception {
+        // Given
+        String orderId = "order1";
+        StatusUpdateRequest request = new StatusUpdateRequest();
+        request.setStatus(OrderStatus.COMPLETED);
+
+        when(orderService.updateOrderStatus(orderId, OrderStatus.COMPLETED))
+            .thenThrow(new OrderConflictException(orderId, 1, 2));
+
+        // When & Then
+        mockMvc.perform(patch("/api/order/{orderId}/status", orderId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("ORDER_CONFLICT"));
+    }
+
     @Test
     void cancelOrder_WithValidOrderId_ShouldReturnCancelledOrder() throws Exception {
         // Given
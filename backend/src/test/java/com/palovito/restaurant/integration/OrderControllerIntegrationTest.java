@@ -103,6 +103,6 @@ class OrderControllerIntegrationTest {
         assertThat(response.getBody().getItems()).hasSize(1);
         assertThat(response.getBody().getStatus()).isEqualTo(OrderStatus.RECEIVED);
         assertThat(response.getBody().getTotal()).isEqualTo(30000.0);
-        assertThat(response.getBody().getItems().get(0).getMenu().getId()).isEqualTo(menuId);
+        assertThat(response.getBody().getItems().get(0).getMenuId()).isEqualTo(menuId);
     }
 }
\ No newline at end of file
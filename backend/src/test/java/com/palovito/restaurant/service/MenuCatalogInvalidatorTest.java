@@ -0,0 +1,87 @@
+package com.palovito.restaurant.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import com.palovito.restaurant.event.MenuCatalogInvalidatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import java.nio.charset.StandardCharsets;
+
+@ExtendWith(MockitoExtension.class)
+class MenuCatalogInvalidatorTest {
+    private static final byte[] CHANNEL = "menu:catalog:invalidate".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RedisConnection connection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MenuCatalogInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        invalidator = new MenuCatalogInvalidator(redisTemplate, listenerContainer, eventPublisher,
+            meterRegistry, "menu:catalog:invalidate");
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] announced() {
+        ArgumentCaptor<RedisCallback<Long>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redisTemplate).execute(callback.capture());
+        callback.getValue().doInRedis(connection);
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(connection).publish(eq(CHANNEL), body.capture());
+        return body.getValue();
+    }
+
+    private void receive(byte[] body) {
+        invalidator.onMessage(new DefaultMessage(CHANNEL, body), null);
+    }
+
+    @Test
+    void onMessage_WhenAnotherNodeChangedMenus_ShouldPublishInvalidation() {
+        // When
+        receive("other-node".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        verify(eventPublisher).publishEvent(any(MenuCatalogInvalidatedEvent.class));
+        assertThat(meterRegistry.get("menu.catalog.invalidations").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void onMessage_WhenOwnAnnouncementArrives_ShouldIgnoreIt() {
+        // Given
+        invalidator.announce();
+        byte[] own = announced();
+
+        // When
+        receive(own);
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertThat(meterRegistry.get("menu.catalog.invalidations").counter().count()).isZero();
+    }
+}
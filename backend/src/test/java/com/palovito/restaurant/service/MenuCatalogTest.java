@@ -0,0 +1,135 @@
+package com.palovito.restaurant.service;
+
+import org.junit.jupiter.api.Test;
+import com.palovito.restaurant.model.Menu;
+import com.palovito.restaurant.model.Category;
+import com.palovito.restaurant.model.MenuSearchPage;
+import com.palovito.restaurant.model.MenuSearchQuery;
+import static org.assertj.core.api.Assertions.assertThat;
+import java.math.BigDecimal;
+import java.util.List;
+
+class MenuCatalogTest {
+    private final Category stews = new Category("cat1", "찌개류", "한국식 찌개");
+    private final Category grills = new Category("cat2", "구이류", "한국식 구이 요리");
+
+    private Menu menu(String id, Category category) {
+        return Menu.builder()
+            .id(id)
+            .name(id)
+            .price(BigDecimal.valueOf(15000))
+            .category(category)
+            .build();
+    }
+
+    @Test
+    void withMenu_ShouldReturnNewSnapshotAndLeaveOriginalUntouched() {
+        // Given
+        MenuCatalog original = MenuCatalog.of(1, List.of(menu("menu1", stews)));
+
+        // When
+        MenuCatalog updated = original.withMenu(menu("menu2", grills));
+
+        // Then
+        assertThat(updated.getVersion()).isEqualTo(2);
+        assertThat(updated.getMenus()).extracting(Menu::getId).containsExactly("menu1", "menu2");
+        assertThat(updated.getMenusByCategory("cat2")).extracting(Menu::getId).containsExactly("menu2");
+        assertThat(original.getMenus()).extracting(Menu::getId).containsExactly("menu1");
+        assertThat(original.getMenusByCategory("cat2")).isEmpty();
+    }
+
+    @Test
+    void withoutMenu_ShouldRemoveMenuFromAllIndexes() {
+        // Given
+        MenuCatalog original = MenuCatalog.of(1, List.of(menu("menu1", stews), menu("menu2", stews)));
+
+        // When
+        MenuCatalog updated = original.withoutMenu("menu1");
+
+        // Then
+        assertThat(updated.contains("menu1")).isFalse();
+        assertThat(updated.getMenusByCategory("cat1")).extracting(Menu::getId).containsExactly("menu2");
+        assertThat(updated.getMenus(List.of("menu1", "menu2"))).containsOnlyKeys("menu2");
+    }
+
+    @Test
+    void search_ShouldMatchWordsInsideCompoundsAndApplyFilters() {
+        // Given
+        Menu kimchiStew = menu("menu1", stews);
+        kimchiStew.setName("김치찌개");
+        kimchiStew.setSpicyLevel(3);
+        Menu tofuStew = menu("menu2", stews);
+        tofuStew.setName("순두부찌개");
+        tofuStew.setSpicyLevel(1);
+        tofuStew.setAllergens(List.of("soy"));
+        Menu bulgogi = menu("menu3", grills);
+        bulgogi.setName("불고기");
+        bulgogi.setDescription("간장 양념 소고기");
+        MenuCatalog catalog = MenuCatalog.of(1, List.of(kimchiStew, tofuStew, bulgogi));
+
+        // When
+        MenuSearchPage stewPage = catalog.search(MenuSearchQuery.builder().text("찌개").build(), 0, 10);
+        MenuSearchPage mildPage = catalog.search(MenuSearchQuery.builder()
+            .text("찌개")
+            .maxSpicyLevel(2)
+            .build(), 0, 10);
+        MenuSearchPage soyFreePage = catalog.search(MenuSearchQuery.builder()
+            .categoryId("cat1")
+            .excludedAllergens(List.of("soy"))
+            .build(), 0, 10);
+        MenuSearchPage descriptionPage = catalog.search(MenuSearchQuery.builder().text("양념").build(), 0, 10);
+
+        // Then
+        assertThat(stewPage.getMenus()).extracting(Menu::getId).containsExactly("menu1", "menu2");
+        assertThat(mildPage.getMenus()).extracting(Menu::getId).containsExactly("menu2");
+        assertThat(soyFreePage.getMenus()).extracting(Menu::getId).containsExactly("menu1");
+        assertThat(descriptionPage.getMenus()).extracting(Menu::getId).containsExactly("menu3");
+    }
+
+    @Test
+    void search_ShouldReflectUpdatesAndPaginate() {
+        // Given
+        Menu kimchiStew = menu("menu1", stews);
+        kimchiStew.setName("김치찌개");
+        Menu tofuStew = menu("menu2", stews);
+        tofuStew.setName("순두부찌개");
+        MenuCatalog original = MenuCatalog.of(1, List.of(kimchiStew, tofuStew));
+        Menu renamed = menu("menu1", stews);
+        renamed.setName("김치볶음밥");
+
+        // When
+        MenuCatalog updated = original.withMenu(renamed);
+        MenuSearchPage firstPage = original.search(MenuSearchQuery.builder().text("찌개").build(), 0, 1);
+        MenuSearchPage secondPage = original.search(MenuSearchQuery.builder().text("찌개").build(), 1, 1);
+
+        // Then
+        assertThat(updated.search(MenuSearchQuery.builder().text("찌개").build(), 0, 10).getMenus())
+            .extracting(Menu::getId).containsExactly("menu2");
+        assertThat(updated.search(MenuSearchQuery.builder().text("볶음").build(), 0, 10).getMenus())
+            .extracting(Menu::getId).containsExactly("menu1");
+        assertThat(firstPage.getMenus()).extracting(Menu::getId).containsExactly("menu1");
+        assertThat(firstPage.getTotal()).isEqualTo(2);
+        assertThat(firstPage.getNextOffset()).isEqualTo(1);
+        assertThat(secondPage.getMenus()).extracting(Menu::getId).containsExactly("menu2");
+        assertThat(secondPage.getNextOffset()).isNull();
+    }
+
+    @Test
+    void search_WithSingleCharacter_ShouldMatchItAnywhereInAWord() {
+        // Given
+        Menu kimchiStew = menu("menu1", stews);
+        kimchiStew.setName("김치찌개");
+        Menu bulgogi = menu("menu2", grills);
+        bulgogi.setName("불고기");
+        MenuCatalog catalog = MenuCatalog.of(1, List.of(kimchiStew))
+            .withMenu(bulgogi);
+
+        // When
+        MenuSearchPage lastCharacter = catalog.search(MenuSearchQuery.builder().text("개").build(), 0, 10);
+        MenuSearchPage middleCharacter = catalog.search(MenuSearchQuery.builder().text("고").build(), 0, 10);
+
+        // Then
+        assertThat(lastCharacter.getMenus()).extracting(Menu::getId).containsExactly("menu1");
+        assertThat(middleCharacter.getMenus()).extracting(Menu::getId).containsExactly("menu2");
+    }
+}
@@ -0,0 +1,112 @@
+package com.palovito.restaurant.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.palovito.restaurant.model.Category;
+import com.palovito.restaurant.model.Menu;
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderEvent;
+import com.palovito.restaurant.model.OrderItem;
+import com.palovito.restaurant.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventPublisherTest {
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        OrderEventBroadcaster broadcaster = new OrderEventBroadcaster(messagingTemplate, new ObjectMapper(), meterRegistry);
+        publisher = new OrderEventPublisher(broadcaster, meterRegistry, Duration.ofMillis(50), 100);
+    }
+
+    private Order order() {
+        Menu menu = Menu.builder()
+            .id("menu1")
+            .name("김치찌개")
+            .description("돼지고기와 묵은지로 끓인 찌개")
+            .price(BigDecimal.valueOf(15000))
+            .category(new Category("cat1", "찌개류", "한국식 찌개"))
+            .build();
+        return Order.builder()
+            .id("order1")
+            .items(new ArrayList<>(List.of(OrderItem.of("item1", menu, 2))))
+            .status(OrderStatus.RECEIVED)
+            .total(30000)
+            .version(1)
+            .build();
+    }
+
+    @Test
+    void flush_ShouldCoalesceUpdatesToSameOrderIntoOneSlimEvent() {
+        // Given
+        Order order = order();
+        order.setStatus(OrderStatus.PROCESSING);
+        order.setVersion(2);
+        publisher.publish(OrderEvent.statusChanged(order));
+        order.setTotal(45000);
+        order.setVersion(3);
+        publisher.publish(OrderEvent.quantityChanged(order, "menu1", 3));
+
+        // When
+        publisher.flush();
+
+        // Then
+        ArgumentCaptor<Message<?>> kitchen = ArgumentCaptor.forClass(Message.class);
+        ArgumentCaptor<Message<?>> customer = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/orders/update"), kitchen.capture());
+        verify(messagingTemplate).send(eq("/topic/orders/order1"), customer.capture());
+        verifyNoMoreInteractions(messagingTemplate);
+
+        String event = new String((byte[]) customer.getValue().getPayload(), StandardCharsets.UTF_8);
+        assertThat(event)
+            .contains("\"type\":\"UPDATED\"", "\"version\":3", "\"status\":\"PROCESSING\"",
+                "\"menuId\":\"menu1\"", "\"quantity\":3")
+            .doesNotContain("description", "category");
+        assertThat(new String((byte[]) kitchen.getValue().getPayload(), StandardCharsets.UTF_8))
+            .isEqualTo("[" + event + "]");
+        assertThat(meterRegistry.counter("orders.events.coalesced").count()).isEqualTo(1);
+    }
+
+    @Test
+    void publish_WhenQueueIsFull_ShouldDropEventsForNewOrders() {
+        // Given
+        OrderEventBroadcaster broadcaster = new OrderEventBroadcaster(messagingTemplate, new ObjectMapper(), meterRegistry);
+        OrderEventPublisher smallPublisher = new OrderEventPublisher(broadcaster, meterRegistry, Duration.ofMillis(50), 1);
+        Order first = order();
+        Order second = order();
+        second.setId("order2");
+
+        // When
+        smallPublisher.publish(OrderEvent.created(first));
+        smallPublisher.publish(OrderEvent.created(second));
+        smallPublisher.flush();
+
+        // Then
+        verify(messagingTemplate).send(eq("/topic/orders"), any());
+        verifyNoMoreInteractions(messagingTemplate);
+        assertThat(meterRegistry.counter("orders.events.dropped").count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,171 @@
+package com.palovito.restaurant.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import com.palovito.restaurant.exception.IdempotentOrderPurgedException;
+import com.palovito.restaurant.exception.IdempotentRequestInProgressException;
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderRequest;
+import com.palovito.restaurant.model.OrderStatus;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIdempotencyServiceTest {
+    private static final String KEY = "idempotency:order:checkout-42";
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private OrderIdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        idempotencyService = new OrderIdempotencyService(orderService, redisTemplate,
+            Duration.ofHours(24), Duration.ofSeconds(30), Duration.ofMillis(100), Duration.ofMillis(10));
+    }
+
+    private OrderRequest request(int quantity) {
+        OrderRequest request = new OrderRequest();
+        OrderRequest.OrderItem item = new OrderRequest.OrderItem();
+        item.setMenuId("menu1");
+        item.setQuantity(quantity);
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    private Order order() {
+        return Order.builder()
+            .id("order1")
+            .status(OrderStatus.RECEIVED)
+            .items(new ArrayList<>())
+            .version(1)
+            .build();
+    }
+
+    @Test
+    void createOrder_WhenKeyIsNew_ShouldCreateOrderAndRecordIt() {
+        // Given
+        Order order = order();
+        when(valueOperations.setIfAbsent(eq(KEY), startsWith("pending:"), eq(Duration.ofSeconds(30)))).thenReturn(true);
+        when(orderService.createOrder(any())).thenReturn(order);
+
+        // When
+        OrderIdempotencyService.Outcome outcome = idempotencyService.createOrder("checkout-42", request(2));
+
+        // Then
+        assertThat(outcome.order()).isSameAs(order);
+        assertThat(outcome.replayed()).isFalse();
+        verify(valueOperations).set(eq(KEY), startsWith("done:"), eq(Duration.ofHours(24)));
+    }
+
+    @Test
+    void createOrder_WhenRetried_ShouldReturnFirstOrderWithoutCreatingAnother() {
+        // Given
+        AtomicReference<String> recorded = new AtomicReference<>();
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class)))
+            .thenAnswer(invocation -> recorded.compareAndSet(null, invocation.getArgument(1)));
+        when(orderService.createOrder(any())).thenReturn(order());
+        doAnswer(invocation -> {
+            recorded.set(invocation.getArgument(1));
+            return null;
+        }).when(valueOperations).set(eq(KEY), anyString(), any(Duration.class));
+        when(valueOperations.get(KEY)).thenAnswer(invocation -> recorded.get());
+        when(orderService.getOrder("order1")).thenReturn(order());
+
+        // When
+        idempotencyService.createOrder("checkout-42", request(2));
+        OrderIdempotencyService.Outcome retry = idempotencyService.createOrder("checkout-42", request(2));
+
+        // Then
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.order().getId()).isEqualTo("order1");
+        verify(orderService).createOrder(any());
+    }
+
+    @Test
+    void createOrder_WhenKeyReusedForDifferentItems_ShouldReject() {
+        // Given
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn("done:0000:order1");
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.createOrder("checkout-42", request(3)))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    void createOrder_WhenRecordedOrderWasPurged_ShouldRejectWithoutCreatingAnother() {
+        // Given
+        AtomicReference<String> fingerprint = new AtomicReference<>();
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenAnswer(invocation -> {
+            fingerprint.set(invocation.<String>getArgument(1).split(":", 3)[2]);
+            return false;
+        });
+        when(valueOperations.get(KEY)).thenAnswer(invocation -> "done:" + fingerprint.get() + ":order1");
+        when(orderService.getOrder("order1")).thenReturn(null);
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.createOrder("checkout-42", request(2)))
+            .isInstanceOf(IdempotentOrderPurgedException.class)
+            .hasFieldOrPropertyWithValue("orderId", "order1");
+        verify(orderService, never()).createOrder(any());
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), anyString());
+    }
+
+    @Test
+    void createOrder_WhenFirstRequestStillInFlight_ShouldGiveUpAfterWaitTimeout() {
+        // Given
+        AtomicReference<String> pending = new AtomicReference<>();
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenAnswer(invocation -> {
+            pending.compareAndSet(null, invocation.getArgument(1));
+            return false;
+        });
+        when(valueOperations.get(KEY)).thenAnswer(invocation -> pending.get());
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.createOrder("checkout-42", request(2)))
+            .isInstanceOf(IdempotentRequestInProgressException.class);
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    void createOrder_WhenCreationFails_ShouldReleaseKey() {
+        // Given
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+        when(orderService.createOrder(any())).thenThrow(new IllegalArgumentException("Menu items not found: menu1"));
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.createOrder("checkout-42", request(2)))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), startsWith("pending:"));
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+}
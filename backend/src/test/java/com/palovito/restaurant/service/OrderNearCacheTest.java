@@ -0,0 +1,147 @@
+package com.palovito.restaurant.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderItem;
+import com.palovito.restaurant.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class OrderNearCacheTest {
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderNearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nearCache = new OrderNearCache(redisTemplate, listenerContainer, meterRegistry,
+            100, Duration.ofMinutes(1), "orders:invalidate");
+    }
+
+    private Order order(OrderStatus status, long version) {
+        return Order.builder()
+            .id("order1")
+            .items(new ArrayList<>(List.of(new OrderItem("item1", "menu1", "김치찌개", BigDecimal.valueOf(15000), 2))))
+            .status(status)
+            .version(version)
+            .build();
+    }
+
+    private void receiveInvalidation(String body) {
+        nearCache.onMessage(new DefaultMessage(
+            "orders:invalidate".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    @Test
+    void get_ShouldReturnCopiesThatCallersCanModify() {
+        // Given
+        nearCache.fill(order(OrderStatus.RECEIVED, 1));
+
+        // When
+        Order first = nearCache.get("order1");
+        first.setStatus(OrderStatus.PROCESSING);
+        first.getItems().get(0).setQuantity(5);
+
+        // Then
+        Order second = nearCache.get("order1");
+        assertThat(second.getStatus()).isEqualTo(OrderStatus.RECEIVED);
+        assertThat(second.getItems().get(0).getQuantity()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "orders.near").tag("result", "hit")
+            .functionCounter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void fill_ShouldNotCacheClosedOrders() {
+        // Given
+        nearCache.fill(order(OrderStatus.PROCESSING, 2));
+
+        // When
+        nearCache.fill(order(OrderStatus.COMPLETED, 3));
+
+        // Then
+        assertThat(nearCache.get("order1")).isNull();
+    }
+
+    @Test
+    void onMessage_ShouldDropOlderCopyAndRejectLateStaleFill() {
+        // Given
+        nearCache.fill(order(OrderStatus.RECEIVED, 1));
+
+        // When
+        receiveInvalidation("order1:1");
+        Order afterOwnVersion = nearCache.get("order1");
+        receiveInvalidation("order1:2");
+        Order afterNewerVersion = nearCache.get("order1");
+        nearCache.fill(order(OrderStatus.RECEIVED, 1));
+
+        // Then
+        assertThat(afterOwnVersion).isNotNull();
+        assertThat(afterNewerVersion).isNull();
+        assertThat(nearCache.get("order1")).isNull();
+        assertThat(meterRegistry.get("orders.near.invalidations").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void removed_ShouldDropOrderAndRefuseCopiesReadBeforeTheDelete() {
+        // Given
+        Order readBeforeDelete = order(OrderStatus.RECEIVED, 1);
+        nearCache.fill(order(OrderStatus.RECEIVED, 1));
+
+        // When
+        nearCache.removed(List.of("order1"));
+        nearCache.fill(readBeforeDelete);
+
+        // Then
+        assertThat(nearCache.get("order1")).isNull();
+    }
+
+    @Test
+    void removed_ShouldAnnounceAllOrdersInOneMessage() {
+        // Given
+        nearCache.fill(order(OrderStatus.RECEIVED, 1));
+
+        // When
+        nearCache.removed(List.of("order1", "order2", "order3"));
+
+        // Then
+        assertThat(nearCache.get("order1")).isNull();
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    void onMessage_WithSeveralEntries_ShouldDropEveryListedOrder() {
+        // Given
+        nearCache.fill(order(OrderStatus.RECEIVED, 1));
+
+        // When
+        receiveInvalidation("order0:" + Long.MAX_VALUE + "\norder1:" + Long.MAX_VALUE);
+        nearCache.fill(order(OrderStatus.RECEIVED, 1));
+
+        // Then
+        assertThat(nearCache.get("order1")).isNull();
+        assertThat(meterRegistry.get("orders.near.invalidations").counter().count()).isEqualTo(1);
+    }
+}
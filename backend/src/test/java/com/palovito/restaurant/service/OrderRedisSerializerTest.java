@@ -0,0 +1,98 @@
+package com.palovito.restaurant.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderItem;
+import com.palovito.restaurant.model.OrderStatus;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class OrderRedisSerializerTest {
+    private final OrderRedisSerializer serializer = new OrderRedisSerializer(OrderRedisSerializer.Format.BINARY, 1024);
+
+    private Order order(int lines) {
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItem("item" + i, "menu" + i, "김치찌개 " + i, new BigDecimal("15000.50"), i + 1));
+        }
+        return Order.builder()
+            .id("order1")
+            .items(items)
+            .status(OrderStatus.PROCESSING)
+            .timestamp("2024-03-01T12:30+01:00")
+            .total(30001.0)
+            .version(7)
+            .build();
+    }
+
+    @Test
+    void serialize_ShouldRoundTripAndBeSmallerThanJson() {
+        // Given
+        Order order = order(2);
+
+        // When
+        byte[] binary = serializer.serialize(order);
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(order);
+
+        // Then
+        assertThat(serializer.deserialize(binary)).isEqualTo(order);
+        assertThat(binary.length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    void serialize_ShouldCompressLargeOrdersAndRoundTrip() {
+        // Given
+        Order order = order(50);
+        byte[] uncompressed = new OrderRedisSerializer(OrderRedisSerializer.Format.BINARY, 0).serialize(order);
+
+        // When
+        byte[] compressed = serializer.serialize(order);
+
+        // Then
+        assertThat(compressed.length).isLessThan(uncompressed.length);
+        assertThat(serializer.deserialize(compressed)).isEqualTo(order);
+    }
+
+    @Test
+    void deserialize_ShouldReadOrdersCachedAsJson() {
+        // Given
+        Order order = order(1);
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(order);
+
+        // When
+        Order result = serializer.deserialize(json);
+
+        // Then
+        assertThat(result).isEqualTo(order);
+    }
+
+    @Test
+    void serialize_InJsonFormat_ShouldStayReadableAsJson() {
+        // Given
+        Order order = order(1);
+
+        // When
+        byte[] json = new OrderRedisSerializer(OrderRedisSerializer.Format.JSON, 1024).serialize(order);
+
+        // Then
+        assertThat(new GenericJackson2JsonRedisSerializer().deserialize(json)).isEqualTo(order);
+        assertThat(serializer.deserialize(json)).isEqualTo(order);
+    }
+
+    @Test
+    void deserialize_WhenTruncated_ShouldThrow() {
+        // Given
+        byte[] binary = serializer.serialize(order(2));
+        byte[] truncated = Arrays.copyOf(binary, binary.length - 3);
+
+        // When & Then
+        assertThatThrownBy(() -> serializer.deserialize(truncated))
+            .isInstanceOf(SerializationException.class);
+    }
+}
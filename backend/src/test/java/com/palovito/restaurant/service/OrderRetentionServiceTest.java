@@ -0,0 +1,191 @@
+package com.palovito.restaurant.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.palovito.restaurant.config.CacheConfig;
+import com.palovito.restaurant.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@ExtendWith(MockitoExtension.class)
+class OrderRetentionServiceTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OrderRedisService redisService;
+
+    @Mock
+    private OrderNearCache nearCache;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache completedOrders;
+
+    private final Map<OrderStatus, Deque<List<String>>> expired = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderStatus, OffsetDateTime> cutoffs = new EnumMap<>(OrderStatus.class);
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private List<String> claimed = List.of();
+    private SimpleMeterRegistry meterRegistry;
+    private OrderRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("order.retention.default", "P1D")
+            .withProperty("order.retention.cancelled", "PT6H");
+        environment.setConversionService(new ApplicationConversionService());
+        meterRegistry = new SimpleMeterRegistry();
+        retentionService = new OrderRetentionService(jdbcTemplate, transactionTemplate, redisService, nearCache,
+            cacheManager, meterRegistry, environment);
+        ReflectionTestUtils.setField(retentionService, "chunkSize", 2);
+        ReflectionTestUtils.setField(retentionService, "maxChunksPerRun", 10);
+        ReflectionTestUtils.setField(retentionService, "chunkPause", Duration.ZERO);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            inTransaction.set(true);
+            try {
+                return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(new SimpleTransactionStatus());
+            } finally {
+                inTransaction.set(false);
+            }
+        });
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenAnswer(invocation -> {
+            OrderStatus status = OrderStatus.valueOf(invocation.getArgument(2));
+            cutoffs.put(status, invocation.getArgument(3));
+            Deque<List<String>> chunks = expired.get(status);
+            claimed = chunks != null && !chunks.isEmpty() ? chunks.poll() : List.of();
+            return claimed;
+        });
+    }
+
+    private void expire(OrderStatus status, List<String> ids) {
+        expired.computeIfAbsent(status, s -> new ArrayDeque<>()).add(ids);
+    }
+
+    // Every order has two items
+    private void deleteClaimedRows() {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation ->
+            invocation.<String>getArgument(0).contains("order_items") ? claimed.size() * 2 : claimed.size());
+    }
+
+    private double deleted(OrderStatus status) {
+        return meterRegistry.get("orders.retention.deleted").tag("status", status.name()).counter().count();
+    }
+
+    @Test
+    void purgeExpiredOrders_ShouldUseRetentionOfEachStatus() {
+        // Given
+        OffsetDateTime before = OffsetDateTime.now();
+
+        // When
+        retentionService.purgeExpiredOrders();
+
+        // Then
+        OffsetDateTime after = OffsetDateTime.now();
+        assertThat(cutoffs.get(OrderStatus.CANCELLED)).isBetween(before.minusHours(6), after.minusHours(6));
+        assertThat(cutoffs.get(OrderStatus.COMPLETED)).isBetween(before.minusDays(1), after.minusDays(1));
+        assertThat(cutoffs.get(OrderStatus.RECEIVED)).isBetween(before.minusDays(1), after.minusDays(1));
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    void purgeExpiredOrders_WhenChunkIsShort_ShouldMoveOnToNextStatus() {
+        // Given
+        expire(OrderStatus.COMPLETED, List.of("order1", "order2"));
+        expire(OrderStatus.COMPLETED, List.of("order3"));
+        expire(OrderStatus.COMPLETED, List.of("order4"));
+        deleteClaimedRows();
+        when(cacheManager.getCache(CacheConfig.COMPLETED_ORDERS)).thenReturn(completedOrders);
+
+        // When
+        retentionService.purgeExpiredOrders();
+
+        // Then
+        // One claim each for RECEIVED, PROCESSING and CANCELLED, two for COMPLETED
+        verify(jdbcTemplate, times(5)).queryForList(anyString(), eq(String.class), any(Object[].class));
+        assertThat(expired.get(OrderStatus.COMPLETED)).containsExactly(List.of("order4"));
+        assertThat(deleted(OrderStatus.COMPLETED)).isEqualTo(3);
+        assertThat(meterRegistry.get("orders.retention.chunks").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("orders.retention.items.deleted").counter().count()).isEqualTo(6);
+        assertThat(meterRegistry.get("orders.retention.last.run.deleted").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("orders.retention.run").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void purgeExpiredOrders_ShouldStopWhenChunkBudgetIsUsedUp() {
+        // Given
+        ReflectionTestUtils.setField(retentionService, "maxChunksPerRun", 3);
+        for (int i = 0; i < 5; i++) {
+            expire(OrderStatus.RECEIVED, List.of("order" + i + "a", "order" + i + "b"));
+        }
+        deleteClaimedRows();
+
+        // When
+        retentionService.purgeExpiredOrders();
+
+        // Then
+        verify(jdbcTemplate, times(3)).queryForList(anyString(), eq(String.class), any(Object[].class));
+        assertThat(cutoffs).containsOnlyKeys(OrderStatus.RECEIVED);
+        assertThat(deleted(OrderStatus.RECEIVED)).isEqualTo(6);
+        assertThat(meterRegistry.get("orders.retention.last.run.deleted").gauge().value()).isEqualTo(6);
+    }
+
+    @Test
+    void purgeExpiredOrders_ShouldEvictDeletedOrdersFromCachesAfterCommit() {
+        // Given
+        expire(OrderStatus.RECEIVED, List.of("order1"));
+        expire(OrderStatus.CANCELLED, List.of("order2"));
+        deleteClaimedRows();
+        when(cacheManager.getCache(CacheConfig.COMPLETED_ORDERS)).thenReturn(completedOrders);
+        doAnswer(invocation -> {
+            assertThat(inTransaction).isFalse();
+            return null;
+        }).when(redisService).evictOrders(any());
+
+        // When
+        retentionService.purgeExpiredOrders();
+
+        // Then
+        verify(redisService).evictOrders(List.of("order1"));
+        verify(redisService).evictOrders(List.of("order2"));
+        verify(nearCache).removed(List.of("order1"));
+        verify(nearCache, never()).removed(List.of("order2"));
+        verify(completedOrders).evict("order2");
+        verify(completedOrders, never()).evict("order1");
+    }
+}
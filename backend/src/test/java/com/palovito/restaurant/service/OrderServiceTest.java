@@ -5,17 +5,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.palovito.restaurant.entity.OrderEntity;
+import com.palovito.restaurant.exception.OrderConflictException;
+import com.palovito.restaurant.mapper.OrderMapper;
 import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderItem;
+import com.palovito.restaurant.model.OrderEventType;
 import com.palovito.restaurant.model.OrderRequest;
 import com.palovito.restaurant.model.OrderStatus;
 import com.palovito.restaurant.model.Menu;
 import com.palovito.restaurant.model.Category;
+import com.palovito.restaurant.config.CacheConfig;
+import com.palovito.restaurant.repository.OrderRepository;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.math.BigDecimal;
@@ -23,8 +31,13 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import org.springframework.test.util.ReflectionTestUtils;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
@@ -32,7 +45,28 @@ class OrderServiceTest {
     private MenuService menuService;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private OrderEventPublisher eventPublisher;
+
+    @Mock
+    private OrderRedisService redisService;
+
+    @Mock
+    private OrderNearCache nearCache;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache completedOrders;
 
     @InjectMocks
     private OrderService orderService;
@@ -55,12 +89,9 @@ class OrderServiceTest {
             .category(new Category("cat1", "찌개류", "한국식 찌개"))
             .build();
 
-        when(menuService.getMenu("menu1")).thenReturn(menu);
-        doNothing().when(messagingTemplate).convertAndSend(anyString(), any(Order.class));
-
-        // Set initial delay to a large value to prevent status change during test
-        ReflectionTestUtils.setField(orderService, "initialDelay", 10000L);
-        ReflectionTestUtils.setField(orderService, "manuallyUpdatedOrders", new ConcurrentHashMap<>());
+        OrderEntity entity = new OrderEntity();
+        when(menuService.getMenusByIds(any())).thenReturn(Map.of("menu1", menu));
+        when(orderMapper.toEntity(any(Order.class))).thenReturn(entity);
 
         // When
         Order result = orderService.createOrder(request);
@@ -69,28 +100,110 @@ class OrderServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isNotNull();
         assertThat(result.getItems()).hasSize(1);
-        assertThat(result.getItems().get(0).getMenu().getId()).isEqualTo("menu1");
+        assertThat(result.getItems().get(0).getMenuId()).isEqualTo("menu1");
+        assertThat(result.getItems().get(0).getName()).isEqualTo("김치찌개");
+        assertThat(result.getItems().get(0).getUnitPrice()).isEqualByComparingTo("15000");
         assertThat(result.getItems().get(0).getQuantity()).isEqualTo(2);
         assertThat(result.getStatus()).isEqualTo(OrderStatus.RECEIVED);
         double expectedTotal = menu.getPrice().doubleValue() * 2;
         assertThat(result.getTotal()).isEqualTo(expectedTotal);
-        verify(messagingTemplate).convertAndSend(eq("/topic/orders"), any(Order.class));
+        verify(orderRepository).save(entity);
+        verify(redisService).cacheOrder(result);
+        verify(nearCache).fill(result);
+        verify(eventPublisher).publish(argThat(event ->
+            event.getType() == OrderEventType.CREATED && event.getOrder() == result));
+    }
+
+    private OrderRequest requestFor(String... menuIds) {
+        OrderRequest request = new OrderRequest();
+        List<OrderRequest.OrderItem> items = new ArrayList<>();
+        for (String menuId : menuIds) {
+            OrderRequest.OrderItem item = new OrderRequest.OrderItem();
+            item.setMenuId(menuId);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        request.setItems(items);
+        return request;
+    }
+
+    @Test
+    void createOrder_WithMissingItems_ShouldReportAllOfThem() {
+        // Given
+        OrderRequest request = requestFor("menu1", "missing1", "missing2");
+
+        Menu menu = Menu.builder()
+            .id("menu1")
+            .name("김치찌개")
+            .price(BigDecimal.valueOf(15000))
+            .build();
+        when(menuService.getMenusByIds(any())).thenReturn(Map.of("menu1", menu));
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.createOrder(request))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Menu items not found: missing1, missing2");
+        verify(menuService, times(1)).getMenusByIds(any());
+    }
+
+    @Test
+    void createOrder_WithRepeatedMenuItem_ShouldKeepEveryLineAndLookItUpOnce() {
+        // Given
+        OrderRequest request = requestFor("menu1", "menu1");
+
+        Menu menu = Menu.builder()
+            .id("menu1")
+            .name("김치찌개")
+            .price(BigDecimal.valueOf(15000))
+            .build();
+        when(menuService.getMenusByIds(Set.of("menu1"))).thenReturn(Map.of("menu1", menu));
+        when(orderMapper.toEntity(any(Order.class))).thenReturn(new OrderEntity());
+
+        // When
+        Order result = orderService.createOrder(request);
+
+        // Then
+        assertThat(result.getItems()).hasSize(2)
+            .allSatisfy(item -> assertThat(item.getMenuId()).isEqualTo("menu1"));
+        assertThat(result.getTotal()).isEqualTo(30000.0);
+    }
+
+    @Test
+    void getOrder_WhenNearCached_ShouldNotCallRedisOrDatabase() {
+        // Given
+        Order order = Order.builder()
+            .id("order1")
+            .status(OrderStatus.PROCESSING)
+            .items(new ArrayList<>())
+            .version(3)
+            .build();
+        when(nearCache.get("order1")).thenReturn(order);
+
+        // When
+        Order result = orderService.getOrder("order1");
+
+        // Then
+        assertThat(result).isSameAs(order);
+        verify(redisService, never()).getOrder(any());
+        verify(orderRepository, never()).findById(any());
     }
 
     @Test
     void updateOrderStatus_ShouldUpdateStatusAndNotifyClients() {
         // Given
         String orderId = "order1";
+        String timestamp = LocalDateTime.now().toString();
         Order existingOrder = Order.builder()
             .id(orderId)
             .status(OrderStatus.RECEIVED)
             .items(new ArrayList<>())
-            .timestamp(LocalDateTime.now().toString())
+            .timestamp(timestamp)
             .total(0.0)
+            .version(1)
             .build();
         
-        ReflectionTestUtils.setField(orderService, "orders", 
-            new ConcurrentHashMap<>(Map.of(orderId, existingOrder)));
+        when(redisService.getOrder(orderId)).thenReturn(existingOrder);
+        when(orderRepository.updateStatus(orderId, OrderStatus.PROCESSING, 1)).thenReturn(1);
 
         // When
         Order result = orderService.updateOrderStatus(orderId, OrderStatus.PROCESSING);
@@ -98,7 +211,154 @@ class OrderServiceTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(result.getStatus()).isEqualTo(OrderStatus.PROCESSING);
-        assertThat(result.getTimestamp()).isEqualTo(LocalDateTime.now().toString());
-        verify(messagingTemplate).convertAndSend(eq("/topic/orders/update"), any(Order.class));
+        assertThat(result.getTimestamp()).isEqualTo(timestamp);
+        assertThat(result.getVersion()).isEqualTo(2);
+        verify(redisService).cacheOrder(result);
+        verify(orderRepository, never()).save(any());
+        verify(nearCache).changed(result);
+        verify(eventPublisher).publish(argThat(event ->
+            event.getType() == OrderEventType.STATUS_CHANGED
+                && event.getOrderId().equals(orderId)
+                && event.getStatus() == OrderStatus.PROCESSING
+                && event.getItems() == null));
+    }
+
+    @Test
+    void updateOrderStatus_WhenOrderChangedConcurrently_ShouldThrowConflict() {
+        // Given
+        String orderId = "order1";
+        Order staleOrder = Order.builder()
+            .id(orderId)
+            .status(OrderStatus.RECEIVED)
+            .items(new ArrayList<>())
+            .version(1)
+            .build();
+        Order currentOrder = Order.builder()
+            .id(orderId)
+            .status(OrderStatus.CANCELLED)
+            .items(new ArrayList<>())
+            .version(2)
+            .build();
+        OrderEntity currentEntity = new OrderEntity();
+
+        when(redisService.getOrder(orderId)).thenReturn(staleOrder);
+        when(orderRepository.updateStatus(orderId, OrderStatus.COMPLETED, 1)).thenReturn(0);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(currentEntity));
+        when(orderMapper.toModel(currentEntity)).thenReturn(currentOrder);
+        when(cacheManager.getCache(CacheConfig.COMPLETED_ORDERS)).thenReturn(completedOrders);
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.updateOrderStatus(orderId, OrderStatus.COMPLETED))
+            .isInstanceOf(OrderConflictException.class)
+            .hasFieldOrPropertyWithValue("currentVersion", 2L);
+        verify(redisService).cacheOrder(currentOrder);
+        verify(completedOrders).evict(orderId);
+        verify(eventPublisher, never()).publish(any());
+    }
+
+    private Order orderWithItem(long version, int quantity) {
+        List<OrderItem> items = new ArrayList<>();
+        items.add(new OrderItem("item1", "menu1", "김치찌개", BigDecimal.valueOf(15000), quantity));
+        return Order.builder()
+            .id("order1")
+            .status(OrderStatus.RECEIVED)
+            .items(items)
+            .total(15000.0 * quantity)
+            .version(version)
+            .build();
+    }
+
+    private SimpleTransactionStatus runTransactionsInline() {
+        SimpleTransactionStatus status = new SimpleTransactionStatus();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(status));
+        return status;
+    }
+
+    @Test
+    void updateOrderQuantity_ShouldUpdateTotalAndItemAndNotifyClients() {
+        // Given
+        String orderId = "order1";
+        Order existingOrder = orderWithItem(1, 1);
+        SimpleTransactionStatus status = runTransactionsInline();
+
+        when(redisService.getOrder(orderId)).thenReturn(existingOrder);
+        when(orderRepository.updateTotal(orderId, 45000.0, 1)).thenReturn(1);
+        when(orderRepository.updateItemQuantity(orderId, "menu1", 3)).thenReturn(1);
+
+        // When
+        Order result = orderService.updateOrderQuantity(orderId, "menu1", 3);
+
+        // Then
+        assertThat(result).isNotNull();
+        assertThat(result.getTotal()).isEqualTo(45000.0);
+        assertThat(result.getVersion()).isEqualTo(2);
+        assertThat(result.getItems().get(0).getQuantity()).isEqualTo(3);
+        assertThat(status.isRollbackOnly()).isFalse();
+        verify(redisService).cacheOrder(result);
+        verify(orderRepository, never()).save(any());
+        verify(nearCache).changed(result);
+        verify(eventPublisher).publish(argThat(event ->
+            event.getType() == OrderEventType.ITEMS_CHANGED
+                && event.getVersion() == 2
+                && event.getTotal() == 45000.0
+                && event.getItems().size() == 1
+                && event.getItems().get(0).getMenuId().equals("menu1")
+                && event.getItems().get(0).getQuantity() == 3));
+    }
+
+    @Test
+    void updateOrderQuantity_WhenOrderChangedConcurrently_ShouldRollBackAndRefreshCache() {
+        // Given
+        String orderId = "order1";
+        Order staleOrder = orderWithItem(1, 1);
+        Order currentOrder = orderWithItem(2, 2);
+        OrderEntity currentEntity = new OrderEntity();
+        SimpleTransactionStatus status = runTransactionsInline();
+
+        when(redisService.getOrder(orderId)).thenReturn(staleOrder);
+        when(orderRepository.updateTotal(orderId, 45000.0, 1)).thenReturn(0);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(currentEntity));
+        when(orderMapper.toModel(currentEntity)).thenReturn(currentOrder);
+        when(cacheManager.getCache(CacheConfig.COMPLETED_ORDERS)).thenReturn(completedOrders);
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.updateOrderQuantity(orderId, "menu1", 3))
+            .isInstanceOf(OrderConflictException.class)
+            .hasFieldOrPropertyWithValue("currentVersion", 2L);
+        assertThat(status.isRollbackOnly()).isTrue();
+        verify(orderRepository, never()).updateItemQuantity(any(), any(), eq(3));
+        verify(redisService).cacheOrder(currentOrder);
+        verify(nearCache).fill(currentOrder);
+        verify(nearCache, never()).changed(any());
+        verify(completedOrders).evict(orderId);
+        verify(eventPublisher, never()).publish(any());
+    }
+
+    @Test
+    void getOrder_WhenCompletedOrderLoadedFromDatabase_ShouldCacheItAsCompleted() {
+        // Given
+        String orderId = "order1";
+        Order completedOrder = Order.builder()
+            .id(orderId)
+            .status(OrderStatus.COMPLETED)
+            .items(new ArrayList<>())
+            .version(4)
+            .build();
+        OrderEntity entity = new OrderEntity();
+
+        when(cacheManager.getCache(CacheConfig.COMPLETED_ORDERS)).thenReturn(completedOrders);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(entity));
+        when(orderMapper.toModel(entity)).thenReturn(completedOrder);
+
+        // When
+        Order result = orderService.getOrder(orderId);
+
+        // Then
+        assertThat(result).isSameAs(completedOrder);
+        verify(completedOrders).put(eq(orderId),
+            argThat(cached -> cached != completedOrder && ((Order) cached).getVersion() == 4));
+        verify(redisService, never()).cacheOrder(any());
+        verify(nearCache, never()).fill(any());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.palovito.restaurant.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.palovito.restaurant.model.Order;
+import com.palovito.restaurant.model.OrderEvent;
+import com.palovito.restaurant.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.verify;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class RedisOrderEventRelayTest {
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private OrderEventBroadcaster broadcaster;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private RedisOrderEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new RedisOrderEventRelay(redisTemplate, listenerContainer, broadcaster, objectMapper,
+            meterRegistry, "orders:events", Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        relay.unsubscribe();
+    }
+
+    private OrderEvent statusChanged(OrderStatus status, long version) {
+        Order order = Order.builder()
+            .id("order1")
+            .items(new ArrayList<>())
+            .status(status)
+            .version(version)
+            .build();
+        return OrderEvent.statusChanged(order);
+    }
+
+    private void receive(List<OrderEvent> events) throws Exception {
+        byte[] channel = "orders:events".getBytes(StandardCharsets.UTF_8);
+        relay.onMessage(new DefaultMessage(channel, objectMapper.writeValueAsBytes(events)), null);
+    }
+
+    @Test
+    void onMessage_ShouldDropDuplicateAndStaleEvents() throws Exception {
+        // Given
+        OrderEvent processing = statusChanged(OrderStatus.PROCESSING, 3);
+        OrderEvent olderReceived = statusChanged(OrderStatus.RECEIVED, 2);
+
+        // When
+        receive(List.of(processing));
+        receive(List.of(processing, olderReceived));
+
+        // Then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+            assertThat(meterRegistry.counter("orders.events.relay.stale").count()).isEqualTo(1));
+        assertThat(meterRegistry.counter("orders.events.relay.duplicates").count()).isEqualTo(1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderEvent>> delivered = ArgumentCaptor.forClass(List.class);
+        verify(broadcaster).send(delivered.capture());
+        assertThat(delivered.getValue()).extracting(OrderEvent::getEventId).containsExactly(processing.getEventId());
+    }
+}
@@ -1,15 +1,25 @@
-import { useState } from 'react';
+import { useRef, useState } from 'react';
 import { useCart } from '../hooks/useCart';
 import { useNavigate } from 'react-router-dom';
 import { Button } from '../components/ui/button';
 import { orderService } from '../services/orderService';
 import { useToast } from "../hooks/use-toast"
+import { newIdempotencyKey } from '../utils/idempotencyKey';
 
 export function Checkout() {
   const { items, total, clearCart } = useCart();
   const navigate = useNavigate();
   const { toast } = useToast();
   const [loading, setLoading] = useState(false);
+  // One key per cart content, so pressing Place Order again after a failed or
+  // timed out attempt cannot place the same order twice. A new key is only
+  // made when the cart is edited or the order went through.
+  const idempotency = useRef<{ cart: string; key: string } | null>(null);
+  const cart = (items ?? []).map(item => `${item?.menuItem?.id}=${item?.quantity}`).join(';');
+  if (idempotency.current === null || idempotency.current.cart !== cart) {
+    idempotency.current = { cart, key: newIdempotencyKey() };
+  }
+  const idempotencyKey = idempotency.current.key;
 
   const handleSubmit = async (e: React.FormEvent) => {
     e.preventDefault();
@@ -24,7 +34,8 @@ export function Checkout() {
         }))
       };
 
-      const order = await orderService.createOrder(orderRequest);
+      const order = await orderService.createOrder(orderRequest, idempotencyKey);
+      idempotency.current = null;
       clearCart();
       toast({
         title: 'Success',
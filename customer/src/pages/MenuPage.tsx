@@ -3,14 +3,21 @@ import { MenuCard } from '../components/menu/MenuCard';
 import { menuService } from '../services/menuService';
 import { categoryService } from '../services/categoryService';
 import { useToast } from "../hooks/use-toast"
-import type { Menu, Category } from '../types/Menu';
+import type { Menu, Category, MenuSearchPage } from '../types/Menu';
 import { Tabs, TabsList, TabsTrigger, TabsContent } from '../components/ui/tabs';
+import { Input } from '../components/ui/input';
+import { Button } from '../components/ui/button';
+
+const SEARCH_PAGE_SIZE = 24;
+const SEARCH_DEBOUNCE_MS = 250;
 
 export function MenuPage() {
   const { toast } = useToast();
   const [menus, setMenus] = useState<Menu[]>([]);
   const [categories, setCategories] = useState<Category[]>([]);
   const [loading, setLoading] = useState(true);
+  const [searchText, setSearchText] = useState('');
+  const [searchResults, setSearchResults] = useState<MenuSearchPage | null>(null);
 
   useEffect(() => {
     const fetchData = async () => {
@@ -34,6 +41,47 @@ export function MenuPage() {
     fetchData();
   }, [toast]);
 
+  // Searches run on the server; only the requested page is downloaded.
+  useEffect(() => {
+    const q = searchText.trim();
+    if (!q) {
+      setSearchResults(null);
+      return;
+    }
+    const timeout = setTimeout(async () => {
+      try {
+        setSearchResults(await menuService.searchMenus({ q, limit: SEARCH_PAGE_SIZE }));
+      } catch (error) {
+        toast({
+          title: 'Error',
+          description: 'Failed to search the menu',
+          variant: 'destructive'
+        });
+      }
+    }, SEARCH_DEBOUNCE_MS);
+    return () => clearTimeout(timeout);
+  }, [searchText, toast]);
+
+  const loadMoreResults = async () => {
+    if (searchResults?.nextOffset == null) {
+      return;
+    }
+    try {
+      const next = await menuService.searchMenus({
+        q: searchText.trim(),
+        offset: searchResults.nextOffset,
+        limit: SEARCH_PAGE_SIZE
+      });
+      setSearchResults({ ...next, menus: [...searchResults.menus, ...next.menus] });
+    } catch (error) {
+      toast({
+        title: 'Error',
+        description: 'Failed to search the menu',
+        variant: 'destructive'
+      });
+    }
+  };
+
   if (loading) {
     return <div className="flex justify-center items-center">Loading...</div>;
   }
@@ -46,26 +94,50 @@ export function MenuPage() {
   return (
     <div className="max-w-7xl mx-auto">
       <h1 className="text-3xl font-bold mb-8">Our Menu</h1>
-      
-      <Tabs defaultValue={categories[0]?.id} className="w-full">
-        <TabsList className="mb-8">
-          {categories?.map(category => (
-            <TabsTrigger key={category?.id} value={category?.id}>
-              {category?.name}
-            </TabsTrigger>
-          ))}
-        </TabsList>
 
-        {categories?.map(category => (
-          <TabsContent key={category?.id} value={category?.id}>
-            <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6">
-              {menusByCategory[category?.id]?.map(menu => (
-                <MenuCard key={menu?.id} menu={menu} />
-              ))}
+      <Input
+        type="search"
+        placeholder="Search dishes"
+        value={searchText}
+        onChange={(e) => setSearchText(e.target.value)}
+        className="mb-8 max-w-md"
+      />
+
+      {searchResults ? (
+        <div>
+          <p className="text-sm text-gray-600 mb-4">{searchResults.total} dishes found</p>
+          <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6">
+            {searchResults.menus.map(menu => (
+              <MenuCard key={menu.id} menu={menu} />
+            ))}
+          </div>
+          {searchResults.nextOffset != null && (
+            <div className="flex justify-center mt-8">
+              <Button variant="outline" onClick={loadMoreResults}>Load more</Button>
             </div>
-          </TabsContent>
-        ))}
-      </Tabs>
+          )}
+        </div>
+      ) : (
+        <Tabs defaultValue={categories[0]?.id} className="w-full">
+          <TabsList className="mb-8">
+            {categories?.map(category => (
+              <TabsTrigger key={category?.id} value={category?.id}>
+                {category?.name}
+              </TabsTrigger>
+            ))}
+          </TabsList>
+
+          {categories?.map(category => (
+            <TabsContent key={category?.id} value={category?.id}>
+              <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6">
+                {menusByCategory[category?.id]?.map(menu => (
+                  <MenuCard key={menu?.id} menu={menu} />
+                ))}
+              </div>
+            </TabsContent>
+          ))}
+        </Tabs>
+      )}
     </div>
   );
 } 
\ No newline at end of file
@@ -4,7 +4,8 @@ import { WebSocketService } from '../services/websocketService';
 import { useToast } from "../hooks/use-toast"
 import { Button } from "../components/ui/button"
 import { useNavigate } from 'react-router-dom';
-import type { Order } from '../types/Order';
+import type { Order, OrderEvent } from '../types/Order';
+import { applyOrderEvent } from '../utils/orderEvents';
 
 export function OrderHistory() {
   const [orders, setOrders] = useState<Order[]>([]);
@@ -14,25 +15,19 @@ export function OrderHistory() {
 
   useEffect(() => {
     const wsService = new WebSocketService();
-    
-    // Connect to WebSocket for real-time updates
-    wsService.connect('all', (updatedOrder) => {
-      setOrders(prevOrders => {
-        const orderExists = prevOrders.some(order => order.id === updatedOrder.id);
-        if (orderExists) {
-          return prevOrders.map(order => 
-            order.id === updatedOrder.id ? updatedOrder : order
-          );
-        }
-        return [...prevOrders, updatedOrder];
-      });
-    });
 
-    // Fetch initial orders
+    // Fetch initial orders, then follow updates for exactly those orders
     const fetchOrders = async () => {
       try {
         const data = await orderService.getAllOrders();
         setOrders(data);
+
+        wsService.connect(
+          data.map((order) => WebSocketService.orderTopic(order.id)),
+          (event: OrderEvent) => {
+            setOrders(prevOrders => prevOrders.map(order => applyOrderEvent(order, event)));
+          }
+        ).catch((error) => console.error('WebSocket error:', error));
       } catch (error) {
         toast({
           title: 'Error',
@@ -103,9 +98,9 @@ export function OrderHistory() {
               <div className="space-y-2 mb-4">
                 {order?.items?.map((item, index) => (
                   <div key={index} className="text-sm flex justify-between">
-                    <span>{item?.menu?.name} x {item?.quantity}</span>
+                    <span>{item?.name} x {item?.quantity}</span>
                     <span className="text-gray-600">
-                      ${(item?.menu?.price * item?.quantity).toFixed(2)}
+                      ${(item?.unitPrice * item?.quantity).toFixed(2)}
                     </span>
                   </div>
                 ))}
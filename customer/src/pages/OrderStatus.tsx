@@ -4,7 +4,8 @@ import { WebSocketService } from '../services/websocketService';
 import { orderService } from '../services/orderService';
 import { useToast } from "../hooks/use-toast";
 import { Clock, CookingPot, CheckCircle2, XCircle } from 'lucide-react';
-import type { Order } from '../types/Order';
+import type { Order, OrderEvent } from '../types/Order';
+import { applyOrderEvent } from '../utils/orderEvents';
 
 export function OrderStatus() {
   const { orderId } = useParams<{ orderId: string }>();
@@ -31,17 +32,17 @@ export function OrderStatus() {
         }
 
         // Then connect to WebSocket
-        await wsService.connect('/topic/orders/update', (message) => {
-          if (mounted && message.id === orderId) {
-            setOrder(message);
+        await wsService.connect([WebSocketService.orderTopic(orderId)], (event: OrderEvent) => {
+          if (mounted) {
+            setOrder(prev => prev ? applyOrderEvent(prev, event) : prev);
             setWsConnected(true);
             
-            if (message.status === 'COMPLETED') {
+            if (event.status === 'COMPLETED') {
               toast({
                 title: 'Order Ready!',
                 description: 'Your order is ready for pickup.',
               });
-            } else if (message.status === 'CANCELLED') {
+            } else if (event.status === 'CANCELLED') {
               toast({
                 title: 'Order Cancelled',
                 description: 'Your order has been cancelled.',
@@ -117,8 +118,8 @@ export function OrderStatus() {
           <h3 className="font-semibold mb-4">Order Items</h3>
             {order?.items?.map((item, index) => (
             <div key={index} className="flex justify-between py-2">
-              <span>{item?.menu?.name} x {item?.quantity}</span>
-              <span>${(item?.menu?.price * item?.quantity).toFixed(2)}</span>
+              <span>{item?.name} x {item?.quantity}</span>
+              <span>${(item?.unitPrice * item?.quantity).toFixed(2)}</span>
             </div>
           ))}
         </div>
@@ -1,5 +1,5 @@
 import axios from 'axios';
-import type { Menu } from '../types/Menu';
+import type { Menu, MenuSearchPage, MenuSearchParams } from '../types/Menu';
 
 const API_URL = 'http://localhost:8080/api';
 
@@ -14,6 +14,13 @@ export const menuService = {
     return response.data;
   },
 
+  searchMenus: async ({ excludeAllergens, ...params }: MenuSearchParams): Promise<MenuSearchPage> => {
+    const response = await axios.get(`${API_URL}/menu/search`, {
+      params: { ...params, excludeAllergens: excludeAllergens?.join(',') || undefined }
+    });
+    return response.data;
+  },
+
   getMenu: async (id: string): Promise<Menu> => {
     const response = await axios.get(`${API_URL}/menu/${id}`);
     return response.data;
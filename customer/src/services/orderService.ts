@@ -1,11 +1,17 @@
 import axios from 'axios';
-import type { Order, OrderRequest } from '../types/Order';
+import type { Order, OrderPage, OrderRequest } from '../types/Order';
 
 const API_URL = 'http://localhost:8080/api';
+// The largest page the server returns
+const PAGE_SIZE = 200;
 
 export const orderService = {
-  createOrder: async (orderRequest: OrderRequest): Promise<Order> => {
-    const response = await axios.post(`${API_URL}/order`, orderRequest);
+  // Retries that send the same idempotency key get the order created by the
+  // first attempt instead of a duplicate.
+  createOrder: async (orderRequest: OrderRequest, idempotencyKey?: string): Promise<Order> => {
+    const response = await axios.post(`${API_URL}/order`, orderRequest, {
+      headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : undefined
+    });
     return response.data;
   },
 
@@ -14,8 +20,17 @@ export const orderService = {
     return response.data;
   },
 
+  // Follows nextCursor through every page, newest orders first.
   getAllOrders: async (): Promise<Order[]> => {
-    const response = await axios.get(`${API_URL}/order`);
-    return response.data;
+    const orders: Order[] = [];
+    let cursor: string | null = null;
+    do {
+      const response: { data: OrderPage } = await axios.get<OrderPage>(`${API_URL}/order`, {
+        params: { limit: PAGE_SIZE, cursor: cursor ?? undefined }
+      });
+      orders.push(...response.data.orders);
+      cursor = response.data.nextCursor;
+    } while (cursor);
+    return orders;
   }
 }; 
\ No newline at end of file
@@ -12,20 +12,22 @@ export class WebSocketService {
     });
   }
 
-  async connect(_: string, onMessage: (data: any) => void): Promise<void> {
+  /**
+   * Subscribes to the given destinations, typically `/topic/orders/{orderId}`
+   * for each order the page shows. Messages are order events (see
+   * `applyOrderEvent`), not full orders. The aggregate `/topic/orders` topics are
+   * meant for the kitchen dashboard and are not used here.
+   */
+  async connect(destinations: string[], onMessage: (data: any) => void): Promise<void> {
     return new Promise((resolve, reject) => {
       this.client.onConnect = () => {
         console.log('Connected to WebSocket');
         
-        // Subscribe to both topics
-        this.client.subscribe('/topic/orders', (message) => {
-          const data = JSON.parse(message.body);
-          onMessage(data);
-        });
-        
-        this.client.subscribe('/topic/orders/update', (message) => {
-          const data = JSON.parse(message.body);
-          onMessage(data);
+        destinations.forEach((destination) => {
+          this.client.subscribe(destination, (message) => {
+            const data = JSON.parse(message.body);
+            onMessage(data);
+          });
         });
         
         resolve();
@@ -40,6 +42,10 @@ export class WebSocketService {
     });
   }
 
+  static orderTopic(orderId: string): string {
+    return `/topic/orders/${orderId}`;
+  }
+
   disconnect() {
     if (this.client.connected) {
       this.client.deactivate();
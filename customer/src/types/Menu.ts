@@ -28,6 +28,24 @@ export interface Menu {
   available: boolean;
 }
 
+export interface MenuSearchParams {
+  q?: string;
+  categoryId?: string;
+  available?: boolean;
+  bestSeller?: boolean;
+  minSpicyLevel?: number;
+  maxSpicyLevel?: number;
+  excludeAllergens?: string[];
+  offset?: number;
+  limit?: number;
+}
+
+export interface MenuSearchPage {
+  menus: Menu[];
+  total: number;
+  nextOffset: number | null;
+}
+
 export interface MenuRequest {
   name: string;
   description: string;
@@ -1,19 +1,8 @@
-export interface MenuItem {
+export interface OrderItem {
   id: string;
+  menuId: string;
   name: string;
-  description: string;
-  price: number;
-  category: {
-    id: string;
-    name: string;
-    description: string;
-  };
-  imageUrl: string;
-  available: boolean;
-}
-
-export interface OrderItem {
-  menu: MenuItem;
+  unitPrice: number;
   quantity: number;
 }
 
@@ -23,6 +12,22 @@ export interface Order {
   status: 'RECEIVED' | 'PROCESSING' | 'COMPLETED' | 'CANCELLED';
   timestamp: string;
   total: number;
+  version: number;
+}
+
+export interface OrderPage {
+  orders: Order[];
+  nextCursor: string | null;
+}
+
+export interface OrderEvent {
+  type: 'CREATED' | 'STATUS_CHANGED' | 'ITEMS_CHANGED' | 'UPDATED';
+  orderId: string;
+  version: number;
+  status?: Order['status'];
+  total?: number;
+  items?: { menuId: string; quantity: number }[];
+  order?: Order;
 }
 
 export interface OrderRequest {
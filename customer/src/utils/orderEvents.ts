@@ -0,0 +1,30 @@
+import type { Order, OrderEvent } from '../types/Order';
+
+/**
+ * Applies an order event from the WebSocket topics to the order it refers to.
+ * Events carry only what changed, and several changes may have been coalesced
+ * into one event, so every field that is present is applied. Events that are
+ * not newer than the order are ignored.
+ *
+ * Kept in sync by hand with frontend/src/lib/orderEvents.ts, since each app
+ * is built on its own; frontend/src/tests/orderEvents.spec.ts runs both copies.
+ */
+export function applyOrderEvent(order: Order, event: OrderEvent): Order {
+  if (order.id !== event.orderId || (order.version ?? 0) >= event.version) {
+    return order;
+  }
+  if (event.type === 'CREATED') {
+    return event.order ?? order;
+  }
+
+  const quantities = new Map((event.items ?? []).map((item) => [item.menuId, item.quantity]));
+  return {
+    ...order,
+    status: event.status ?? order.status,
+    total: event.total ?? order.total,
+    items: quantities.size === 0 ? order.items : order.items.map((item) =>
+      quantities.has(item.menuId) ? { ...item, quantity: quantities.get(item.menuId)! } : item
+    ),
+    version: event.version,
+  };
+}
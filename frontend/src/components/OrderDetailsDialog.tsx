@@ -67,22 +67,19 @@ export function OrderDetailsDialog({
               </thead>
               <tbody className="divide-y divide-gray-200">
                 {order.items.map((item) => (
-                  <tr key={item.menu.id}>
+                  <tr key={item.menuId}>
                     <td className="px-4 py-2">
-                      <div>
-                        <p className="font-medium">{item.menu.name}</p>
-                        <p className="text-sm text-gray-500">{item.menu.category.name}</p>
-                      </div>
+                      <p className="font-medium">{item.name}</p>
                     </td>
                     <td className="px-4 py-2">
-                      {canEditQuantity(order.status) && editingItem?.itemId === item.menu.id ? (
+                      {canEditQuantity(order.status) && editingItem?.itemId === item.menuId ? (
                         <div className="flex items-center gap-2">
                           <input
                             type="number"
                             min="1"
                             value={editingItem.quantity}
                             onChange={(e) => setEditingItem({ 
-                              itemId: item.menu.id, 
+                              itemId: item.menuId, 
                               quantity: parseInt(e.target.value) || 1 
                             })}
                             className="w-20 px-2 py-1 border rounded"
@@ -91,7 +88,7 @@ export function OrderDetailsDialog({
                           <Button
                             variant="ghost"
                             size="sm"
-                            onClick={() => handleQuantityUpdate(item.menu.id)}
+                            onClick={() => handleQuantityUpdate(item.menuId)}
                           >
                             Save
                           </Button>
@@ -104,7 +101,7 @@ export function OrderDetailsDialog({
                               variant="ghost"
                               size="sm"
                               onClick={() => setEditingItem({ 
-                                itemId: item.menu.id, 
+                                itemId: item.menuId, 
                                 quantity: item.quantity 
                               })}
                             >
@@ -114,9 +111,9 @@ export function OrderDetailsDialog({
                         </div>
                       )}
                     </td>
-                    <td className="px-4 py-2 text-right">${item.menu.price.toFixed(2)}</td>
+                    <td className="px-4 py-2 text-right">${item.unitPrice.toFixed(2)}</td>
                     <td className="px-4 py-2 text-right">
-                      ${(item.menu.price * item.quantity).toFixed(2)}
+                      ${(item.unitPrice * item.quantity).toFixed(2)}
                     </td>
                   </tr>
                 ))}
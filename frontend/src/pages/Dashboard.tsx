@@ -2,6 +2,7 @@ import { useEffect, useState } from 'react';
 import { SocketService } from '../services/socketService';
 import { orderService } from '../services/orderService';
 import type { Order } from '../types/Order';
+import { applyOrderEvent } from '../lib/orderEvents';
 import {
   AlertDialog,
   AlertDialogAction,
@@ -28,9 +29,26 @@ export function Dashboard() {
 
   useEffect(() => {
     const socketService = new SocketService();
+    let connectedBefore = false;
+
+    const fetchOrders = async () => {
+      try {
+        const existingOrders = await orderService.getAllOrders();
+        setOrders(existingOrders);
+      } catch (error) {
+        console.error('Failed to fetch orders:', error);
+      } finally {
+        setLoading(false);
+      }
+    };
 
     const handleConnect = () => {
       setConnected(true);
+      // The server closes sessions that fall behind; reload whatever was missed
+      if (connectedBefore) {
+        fetchOrders();
+      }
+      connectedBefore = true;
       // Show any pending orders that are still in RECEIVED state
       const pendingOrders = orders.filter(order => order.status === 'RECEIVED');
       if (pendingOrders.length > 0) {
@@ -42,11 +60,9 @@ export function Dashboard() {
       (newOrder) => {
         setOrders(prev => [...prev, newOrder]);
       },
-      (updatedOrder) => {
+      (event) => {
         setOrders(prev => 
-          prev.map(order => 
-            order.id === updatedOrder.id ? updatedOrder : order
-          )
+          prev.map(order => applyOrderEvent(order, event))
         );
       },
       (deletedOrderId) => {
@@ -55,17 +71,6 @@ export function Dashboard() {
       handleConnect
     );
 
-    const fetchOrders = async () => {
-      try {
-        const existingOrders = await orderService.getAllOrders();
-        setOrders(existingOrders);
-      } catch (error) {
-        console.error('Failed to fetch orders:', error);
-      } finally {
-        setLoading(false);
-      }
-    };
-
     fetchOrders();
 
     return () => {
@@ -295,8 +300,8 @@ export function Dashboard() {
               <p className="text-sm text-gray-500">Items</p>
               {orderToProcess?.items.map((item, index) => (
                 <div key={index} className="flex justify-between py-1">
-                  <span>{item.menu.name} x {item.quantity}</span>
-                  <span>${(item.menu.price * item.quantity).toFixed(2)}</span>
+                  <span>{item.name} x {item.quantity}</span>
+                  <span>${(item.unitPrice * item.quantity).toFixed(2)}</span>
                 </div>
               ))}
             </div>
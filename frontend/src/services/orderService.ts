@@ -1,7 +1,9 @@
 import axios from 'axios';
-import type { Order } from '../types/Order';
+import type { Order, OrderPage } from '../types/Order';
 
 const API_URL = 'http://localhost:8080/api';
+// The largest page the server returns
+const PAGE_SIZE = 200;
 
 export const orderService = {
   createOrder: async (foodName: string, quantity: number): Promise<Order> => {
@@ -16,10 +18,19 @@ export const orderService = {
     }
   },
 
+  // Follows nextCursor through every page, newest orders first.
   getAllOrders: async (): Promise<Order[]> => {
     try {
-      const response = await axios.get(`${API_URL}/order`);
-      return response.data;
+      const orders: Order[] = [];
+      let cursor: string | null = null;
+      do {
+        const response: { data: OrderPage } = await axios.get<OrderPage>(`${API_URL}/order`, {
+          params: { limit: PAGE_SIZE, cursor: cursor ?? undefined }
+        });
+        orders.push(...response.data.orders);
+        cursor = response.data.nextCursor;
+      } while (cursor);
+      return orders;
     } catch (error) {
       throw new Error('Failed to fetch orders');
     }
@@ -1,12 +1,12 @@
 import { Client } from '@stomp/stompjs';
-import type { Order } from '../types/Order';
+import type { Order, OrderEvent } from '../types/Order';
 
 export class SocketService {
   private client: Client | null = null;
 
   connect(
     onNewOrder: (order: Order) => void, 
-    onUpdateOrder: (order: Order) => void,
+    onOrderEvent: (event: OrderEvent) => void,
     onDeleteOrder: (orderId: string) => void,
     onConnect?: () => void
   ) {
@@ -22,11 +22,18 @@ export class SocketService {
         console.log('Connected to WebSocket');
         onConnect?.();
         if (this.client) {
+          // Both topics deliver batches: a JSON array of order events per frame
           this.client.subscribe('/topic/orders', message => {
-            onNewOrder(JSON.parse(message.body));
+            const events: OrderEvent[] = JSON.parse(message.body);
+            events.forEach(event => {
+              if (event.order) {
+                onNewOrder(event.order);
+              }
+            });
           });
           this.client.subscribe('/topic/orders/update', message => {
-            onUpdateOrder(JSON.parse(message.body));
+            const events: OrderEvent[] = JSON.parse(message.body);
+            events.forEach(onOrderEvent);
           });
           this.client.subscribe('/topic/orders/delete', message => {
             onDeleteOrder(JSON.parse(message.body));
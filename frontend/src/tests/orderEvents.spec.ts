@@ -0,0 +1,77 @@
+import { test, expect } from '@playwright/test';
+import type { Order, OrderEvent } from '../types/Order';
+import * as dashboardCopy from '../lib/orderEvents';
+
+type OrderEvents = typeof dashboardCopy;
+
+// The customer app keeps its own copy of orderEvents.ts; both copies must pass
+// the same cases. It is loaded by path so the dashboard build does not depend
+// on the customer sources.
+const customerCopyPath = '../../../customer/src/utils/orderEvents.ts';
+
+const copies: [string, () => Promise<OrderEvents>][] = [
+  ['dashboard', async () => dashboardCopy],
+  ['customer', () => import(customerCopyPath) as Promise<OrderEvents>],
+];
+
+const order: Order = {
+  id: 'order1',
+  items: [
+    { id: 'item1', menuId: 'menu1', name: 'Test Menu Item', unitPrice: 10.99, quantity: 1 },
+    { id: 'item2', menuId: 'menu2', name: 'Other Menu Item', unitPrice: 5, quantity: 2 },
+  ],
+  status: 'RECEIVED',
+  timestamp: '2024-01-01T00:00:00Z',
+  total: 20.99,
+  version: 2,
+};
+
+for (const [name, load] of copies) {
+  test.describe(`applyOrderEvent (${name} copy)`, () => {
+    test('ignores events for other orders and stale versions', async () => {
+      const { applyOrderEvent } = await load();
+      const otherOrder: OrderEvent = { type: 'STATUS_CHANGED', orderId: 'order2', version: 3, status: 'PROCESSING' };
+      const stale: OrderEvent = { type: 'STATUS_CHANGED', orderId: 'order1', version: 2, status: 'PROCESSING' };
+
+      expect(applyOrderEvent(order, otherOrder)).toBe(order);
+      expect(applyOrderEvent(order, stale)).toBe(order);
+    });
+
+    test('applies every field of a coalesced event', async () => {
+      const { applyOrderEvent } = await load();
+      const event: OrderEvent = {
+        type: 'UPDATED',
+        orderId: 'order1',
+        version: 4,
+        status: 'PROCESSING',
+        total: 31.98,
+        items: [{ menuId: 'menu1', quantity: 2 }],
+      };
+
+      const updated = applyOrderEvent(order, event);
+
+      expect(updated.status).toBe('PROCESSING');
+      expect(updated.total).toBe(31.98);
+      expect(updated.items.map((item) => item.quantity)).toEqual([2, 2]);
+      expect(updated.version).toBe(4);
+      expect(order.items[0].quantity).toBe(1);
+    });
+
+    test('keeps the items when the event carries none', async () => {
+      const { applyOrderEvent } = await load();
+      const event: OrderEvent = { type: 'STATUS_CHANGED', orderId: 'order1', version: 3, status: 'COMPLETED' };
+
+      const updated = applyOrderEvent(order, event);
+
+      expect(updated.status).toBe('COMPLETED');
+      expect(updated.items).toBe(order.items);
+    });
+
+    test('replaces the order with the one a CREATED event carries', async () => {
+      const { applyOrderEvent } = await load();
+      const created: Order = { ...order, version: 5, status: 'PROCESSING' };
+
+      expect(applyOrderEvent(order, { type: 'CREATED', orderId: 'order1', version: 5, order: created })).toBe(created);
+    });
+  });
+}
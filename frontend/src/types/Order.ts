@@ -1,19 +1,8 @@
-interface MenuItem {
+interface OrderItem {
   id: string;
+  menuId: string;
   name: string;
-  description: string;
-  price: number;
-  category: {
-    id: string;
-    name: string;
-    description: string;
-  };
-  imageUrl: string;
-  available: boolean;
-}
-
-interface OrderItem {
-  menu: MenuItem;
+  unitPrice: number;
   quantity: number;
 }
 
@@ -23,6 +12,22 @@ interface Order {
   status: 'RECEIVED' | 'PROCESSING' | 'COMPLETED' | 'CANCELLED';
   timestamp: string;
   total: number;
+  version: number;
+}
+
+interface OrderPage {
+  orders: Order[];
+  nextCursor: string | null;
+}
+
+interface OrderEvent {
+  type: 'CREATED' | 'STATUS_CHANGED' | 'ITEMS_CHANGED' | 'UPDATED';
+  orderId: string;
+  version: number;
+  status?: Order['status'];
+  total?: number;
+  items?: { menuId: string; quantity: number }[];
+  order?: Order;
 }
 
-export type { Order, OrderItem, MenuItem }; 
\ No newline at end of file
+export type { Order, OrderItem, OrderPage, OrderEvent }; 
\ No newline at end of file